@@ -3,22 +3,40 @@ package com.infosecconference.desktop;
 import com.infosecconference.desktop.config.AppConfiguration;
 import com.infosecconference.desktop.config.BrandingTheme;
 import com.infosecconference.desktop.db.DatabaseManager;
+import com.infosecconference.desktop.service.CachingDashboardService;
 import com.infosecconference.desktop.service.DashboardService;
+import com.infosecconference.desktop.service.DashboardSnapshotStore;
+import com.infosecconference.desktop.service.ImageService;
+import com.infosecconference.desktop.service.SummaryCounters;
 import com.infosecconference.desktop.ui.MainWindow;
+import com.infosecconference.desktop.util.StartupTimer;
 
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.JOptionPane;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 /**
  * Entry point for the CyberShield desktop management console.
  */
 public final class CyberShieldDesktopApp {
+    private static final String RECOMPUTE_SUMMARY = "--recompute-summary";
+
     private CyberShieldDesktopApp() {
     }
 
     public static void main(String[] args) {
+        if (Arrays.asList(args).contains(RECOMPUTE_SUMMARY)) {
+            System.exit(recomputeSummary());
+        }
+        StartupTimer startup = StartupTimer.sinceJvmStart();
+        startup.mark("main");
         SwingUtilities.invokeLater(() -> {
             try {
                 UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
@@ -26,23 +44,86 @@ public final class CyberShieldDesktopApp {
                 // We can continue with the default look and feel, but log to stdout for troubleshooting.
                 System.err.println("Не удалось применить системную тему: " + e.getMessage());
             }
+        });
 
+        // configuration, theme and logo are read in parallel while the EDT sets up the look and feel
+        CompletableFuture<AppConfiguration> configuration = CompletableFuture.supplyAsync(() -> {
+            try {
+                return AppConfiguration.load();
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        CompletableFuture<BrandingTheme> theme = CompletableFuture.supplyAsync(() -> {
+            try {
+                return BrandingTheme.load();
+            } catch (IOException ex) {
+                throw new CompletionException(ex);
+            }
+        });
+        CompletableFuture<ImageService> imageService =
+                configuration.thenApply(loaded -> new ImageService(loaded.imageRoot()));
+        CompletableFuture<BufferedImage> logo = imageService.thenCompose(MainWindow::loadLogo);
+        CompletableFuture<DatabaseManager> database = configuration.thenApply(DatabaseManager::from);
+        // the window opens on the saved snapshot while the schema is brought up to date
+        CompletableFuture<Void> schema = database.thenAcceptAsync(databaseManager -> {
             try {
-                AppConfiguration configuration = AppConfiguration.load();
-                BrandingTheme theme = BrandingTheme.load();
-                DatabaseManager databaseManager = DatabaseManager.from(configuration);
-
-                DashboardService dashboardService = new DashboardService(databaseManager);
-
-                MainWindow window = new MainWindow(configuration, theme, dashboardService);
-                window.setVisible(true);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                JOptionPane.showMessageDialog(null,
-                        "Ошибка запуска приложения: " + ex.getMessage(),
-                        "CyberShield Desktop",
-                        JOptionPane.ERROR_MESSAGE);
+                databaseManager.migrate();
+            } catch (SQLException ex) {
+                // The window reports an unreachable database on its own; a failed migration must not block startup.
+                System.err.println("Не удалось обновить схему базы данных: " + ex.getMessage());
             }
         });
+
+        CompletableFuture.allOf(configuration, theme, imageService, database).thenRunAsync(() -> {
+            AppConfiguration loadedConfiguration = configuration.join();
+            startup.mark("настройки загружены");
+            DatabaseManager databaseManager = database.join();
+            DashboardService dashboardService = loadedConfiguration.dashboardCacheSettings().enabled()
+                    ? new CachingDashboardService(databaseManager, loadedConfiguration.dashboardCacheSettings())
+                    : new DashboardService(databaseManager);
+
+            DashboardSnapshotStore snapshotStore =
+                    new DashboardSnapshotStore(loadedConfiguration.cacheRoot().resolve("dashboard.snapshot"));
+
+            MainWindow window = new MainWindow(loadedConfiguration, theme.join(), dashboardService, snapshotStore,
+                    imageService.join(), logo.exceptionally(error -> null), startup);
+            window.setVisible(true);
+            startup.mark("окно показано");
+            schema.thenRunAsync(window::start, SwingUtilities::invokeLater);
+        }, SwingUtilities::invokeLater).exceptionally(error -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            cause.printStackTrace();
+            SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+                    "Ошибка запуска приложения: " + cause.getMessage(),
+                    "CyberShield Desktop",
+                    JOptionPane.ERROR_MESSAGE));
+            return null;
+        });
+    }
+
+    /**
+     * Recounts {@code conference_summary} without opening the window and reports any drift from the stored values.
+     *
+     * @return process exit code: 0 when the counters were correct, 2 when they had drifted, 1 on failure
+     */
+    private static int recomputeSummary() {
+        try (DatabaseManager databaseManager = DatabaseManager.from(AppConfiguration.load())) {
+            databaseManager.migrate();
+            SummaryCounters.Recount recount = databaseManager.executeInTransaction(SummaryCounters::recompute);
+            if (!recount.drifted()) {
+                System.out.println("Счётчики сводки совпадают с данными: " + recount.actual());
+                return 0;
+            }
+            System.out.println("Счётчики сводки расходились с данными и пересчитаны.");
+            System.out.println("  было:  " + recount.stored());
+            System.out.println("  стало: " + recount.actual());
+            return 2;
+        } catch (Exception ex) {
+            System.err.println("Не удалось пересчитать сводку: " + ex.getMessage());
+            return 1;
+        }
     }
 }
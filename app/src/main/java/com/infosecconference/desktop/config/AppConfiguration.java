@@ -5,6 +5,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.Properties;
 
 /**
@@ -17,15 +18,27 @@ public final class AppConfiguration {
     private final String databaseUser;
     private final String databasePassword;
     private final Path imageRoot;
+    private final Path excelRoot;
+    private final PoolSettings poolSettings;
+    private final DashboardCacheSettings dashboardCacheSettings;
+    private final RefreshSettings refreshSettings;
 
     private AppConfiguration(String databaseUrl,
                              String databaseUser,
                              String databasePassword,
-                             Path imageRoot) {
+                             Path imageRoot,
+                             Path excelRoot,
+                             PoolSettings poolSettings,
+                             DashboardCacheSettings dashboardCacheSettings,
+                             RefreshSettings refreshSettings) {
         this.databaseUrl = databaseUrl;
         this.databaseUser = databaseUser;
         this.databasePassword = databasePassword;
         this.imageRoot = imageRoot;
+        this.excelRoot = excelRoot;
+        this.poolSettings = poolSettings;
+        this.dashboardCacheSettings = dashboardCacheSettings;
+        this.refreshSettings = refreshSettings;
     }
 
     public static AppConfiguration load() throws IOException {
@@ -42,9 +55,44 @@ public final class AppConfiguration {
         String dbPassword = properties.getProperty("db.password", "");
 
         Path imageRoot = resolvePath(requireProperty(properties, "images.root"));
+        Path excelRoot = resolvePath(properties.getProperty("excel.root", "../session-1"));
+
+        PoolSettings poolSettings = new PoolSettings(
+                Boolean.parseBoolean(properties.getProperty("db.pool.enabled", "true").trim()),
+                intProperty(properties, "db.pool.minIdle", 1),
+                intProperty(properties, "db.pool.maxSize", 8),
+                Duration.ofMillis(intProperty(properties, "db.pool.maxWaitMillis", 5000)),
+                Duration.ofSeconds(intProperty(properties, "db.pool.idleTimeoutSeconds", 300)),
+                Duration.ofSeconds(intProperty(properties, "db.pool.leakThresholdSeconds", 60)));
+
+        DashboardCacheSettings dashboardCacheSettings = new DashboardCacheSettings(
+                Boolean.parseBoolean(properties.getProperty("dashboard.cache.enabled", "true").trim()),
+                intProperty(properties, "dashboard.cache.maxEntries", 64),
+                Duration.ofSeconds(intProperty(properties, "dashboard.cache.summaryTtlSeconds", 300)),
+                Duration.ofSeconds(intProperty(properties, "dashboard.cache.eventsTtlSeconds", 600)),
+                Duration.ofSeconds(intProperty(properties, "dashboard.cache.rosterTtlSeconds", 600)),
+                Duration.ofSeconds(intProperty(properties, "dashboard.cache.scheduleTtlSeconds", 30)));
+
+        RefreshSettings refreshSettings = new RefreshSettings(
+                Boolean.parseBoolean(properties.getProperty("dashboard.refresh.enabled", "true").trim()),
+                Duration.ofSeconds(intProperty(properties, "dashboard.refresh.intervalSeconds", 60)),
+                Duration.ofSeconds(intProperty(properties, "dashboard.refresh.maxBackoffSeconds", 900)));
 
         ensureDirectory(imageRoot, "Каталог изображений");
-        return new AppConfiguration(dbUrl, dbUser, dbPassword, imageRoot);
+        return new AppConfiguration(dbUrl, dbUser, dbPassword, imageRoot, excelRoot, poolSettings, dashboardCacheSettings,
+                refreshSettings);
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException ex) {
+            throw new IllegalStateException("Параметр " + key + " должен быть целым числом: " + value, ex);
+        }
     }
 
     private static String requireProperty(Properties properties, String key) {
@@ -88,4 +136,27 @@ public final class AppConfiguration {
         return imageRoot;
     }
 
+    /**
+     * Runtime directory next to the image root for locally cached data such as the dashboard snapshot.
+     */
+    public Path cacheRoot() {
+        return imageRoot.resolveSibling("cache");
+    }
+
+    public Path excelRoot() {
+        return excelRoot;
+    }
+
+    public PoolSettings poolSettings() {
+        return poolSettings;
+    }
+
+    public DashboardCacheSettings dashboardCacheSettings() {
+        return dashboardCacheSettings;
+    }
+
+    public RefreshSettings refreshSettings() {
+        return refreshSettings;
+    }
+
 }
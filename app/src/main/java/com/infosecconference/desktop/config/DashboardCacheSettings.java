@@ -0,0 +1,27 @@
+package com.infosecconference.desktop.config;
+
+import java.time.Duration;
+
+/**
+ * Dashboard query cache parameters read from the {@code dashboard.cache.*} properties.
+ *
+ * @param enabled     {@code false} sends every dashboard query to the database
+ * @param maxEntries  cached results kept at most; the least recently used ones are dropped first
+ * @param summaryTtl  lifetime of the summary counters
+ * @param eventsTtl   lifetime of the event list
+ * @param rosterTtl   lifetime of a roster for one role
+ * @param scheduleTtl lifetime of the upcoming activities; kept short because the list moves with the clock and
+ *                    activities are not change-tracked, and below the auto-refresh interval
+ */
+public record DashboardCacheSettings(boolean enabled,
+                                     int maxEntries,
+                                     Duration summaryTtl,
+                                     Duration eventsTtl,
+                                     Duration rosterTtl,
+                                     Duration scheduleTtl) {
+    public DashboardCacheSettings {
+        if (maxEntries < 1) {
+            throw new IllegalStateException("Некорректный размер кэша панели: " + maxEntries);
+        }
+    }
+}
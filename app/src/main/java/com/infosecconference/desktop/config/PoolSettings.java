@@ -0,0 +1,26 @@
+package com.infosecconference.desktop.config;
+
+import java.time.Duration;
+
+/**
+ * Connection pool parameters read from the {@code db.pool.*} properties.
+ *
+ * @param enabled       {@code false} opens a new connection per request, as before pooling
+ * @param minIdle       connections kept open even when idle
+ * @param maxSize       upper bound on open connections; further requests wait
+ * @param maxWait       how long a request waits for a free connection before failing
+ * @param idleTimeout   idle connections above {@code minIdle} are closed after this time
+ * @param leakThreshold a connection held longer than this is reported together with the code that borrowed it
+ */
+public record PoolSettings(boolean enabled,
+                           int minIdle,
+                           int maxSize,
+                           Duration maxWait,
+                           Duration idleTimeout,
+                           Duration leakThreshold) {
+    public PoolSettings {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize) {
+            throw new IllegalStateException("Некорректные размеры пула соединений: min=" + minIdle + ", max=" + maxSize);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.infosecconference.desktop.config;
+
+import java.time.Duration;
+
+/**
+ * Dashboard auto-refresh parameters read from the {@code dashboard.refresh.*} properties.
+ *
+ * @param enabled    {@code false} loads the data once at startup and then only on request (F5)
+ * @param interval   pause between the end of one refresh and the start of the next
+ * @param maxBackoff longest pause while the database keeps failing; the pause doubles after every failed refresh
+ */
+public record RefreshSettings(boolean enabled, Duration interval, Duration maxBackoff) {
+    public RefreshSettings {
+        if (interval.isNegative() || interval.isZero() || maxBackoff.compareTo(interval) < 0) {
+            throw new IllegalStateException("Некорректные интервалы обновления панели: " + interval.toSeconds()
+                    + " с, не более " + maxBackoff.toSeconds() + " с");
+        }
+    }
+}
@@ -0,0 +1,340 @@
+package com.infosecconference.desktop.db;
+
+import com.infosecconference.desktop.config.PoolSettings;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps physical MySQL connections open between requests so a dashboard refresh no longer pays the TCP and
+ * authentication handshake per query. Callers get a proxy whose {@code close()} hands the connection back.
+ * Connections are validated on borrow, idle ones above the minimum are closed after the idle timeout, and
+ * connections held past the leak threshold are reported with the stack trace of the borrower.
+ */
+public final class ConnectionPool implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+    private static final long MAX_HOUSEKEEPING_PERIOD_MILLIS = 30_000;
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final PoolSettings settings;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private final Set<Lease> leased = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicLong borrowed = new AtomicLong();
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong leaks = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, PoolSettings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1_000, Math.min(MAX_HOUSEKEEPING_PERIOD_MILLIS, settings.idleTimeout().toMillis() / 2));
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to {@link PoolSettings#maxWait()} when all of them are in use.
+     */
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Пул соединений закрыт");
+        }
+        long waitStarted = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.maxWait().toNanos(), TimeUnit.NANOSECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Нет свободных соединений с базой данных за " + settings.maxWait().toMillis()
+                        + " мс (используется " + leased.size() + " из " + settings.maxSize() + ")");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения с базой данных прервано", ex);
+        }
+        long waited = System.nanoTime() - waitStarted;
+        totalWaitNanos.addAndGet(waited);
+        maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+        try {
+            Connection physical = takeValidIdle();
+            if (physical == null) {
+                physical = open();
+            }
+            Lease lease = new Lease(physical);
+            leased.add(lease);
+            borrowed.incrementAndGet();
+            return lease.proxy;
+        } catch (SQLException | RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    public Stats stats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long count = borrowed.get();
+        return new Stats(idleCount + leased.size(),
+                idleCount,
+                leased.size(),
+                count,
+                created.get(),
+                evicted.get(),
+                timeouts.get(),
+                leaks.get(),
+                Duration.ofNanos(count == 0 ? 0 : totalWaitNanos.get() / count),
+                Duration.ofNanos(maxWaitNanos.get()));
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        List<IdleConnection> toClose;
+        synchronized (idle) {
+            toClose = new ArrayList<>(idle);
+            idle.clear();
+        }
+        toClose.forEach(connection -> closeQuietly(connection.physical()));
+    }
+
+    private Connection takeValidIdle() {
+        while (true) {
+            IdleConnection candidate;
+            synchronized (idle) {
+                // most recently returned first: it is the least likely to have been dropped by the server
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isValid(candidate.physical())) {
+                return candidate.physical();
+            }
+            evicted.incrementAndGet();
+            closeQuietly(candidate.physical());
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection connection = DriverManager.getConnection(url, user, password);
+        created.incrementAndGet();
+        return connection;
+    }
+
+    private void release(Lease lease) {
+        if (!leased.remove(lease)) {
+            return;
+        }
+        Connection physical = lease.physical;
+        try {
+            if (physical.isClosed()) {
+                return;
+            }
+            if (!physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            if (physical.isReadOnly()) {
+                physical.setReadOnly(false);
+            }
+            physical.clearWarnings();
+            synchronized (idle) {
+                if (!closed) {
+                    idle.addFirst(new IdleConnection(physical, System.nanoTime()));
+                    physical = null;
+                }
+            }
+        } catch (SQLException ex) {
+            evicted.incrementAndGet();
+        } finally {
+            if (physical != null) {
+                closeQuietly(physical);
+            }
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        try {
+            evictIdle();
+            reportLeaks();
+            fillToMinimum();
+        } catch (RuntimeException ex) {
+            System.err.println("Ошибка обслуживания пула соединений: " + ex.getMessage());
+        }
+    }
+
+    private void evictIdle() {
+        long now = System.nanoTime();
+        long timeout = settings.idleTimeout().toNanos();
+        List<Connection> expired = new ArrayList<>();
+        synchronized (idle) {
+            // the tail holds the connections that have been idle the longest
+            Iterator<IdleConnection> oldestFirst = idle.descendingIterator();
+            while (oldestFirst.hasNext() && idle.size() + leased.size() > settings.minIdle()) {
+                IdleConnection connection = oldestFirst.next();
+                if (now - connection.returnedAt() < timeout) {
+                    break;
+                }
+                oldestFirst.remove();
+                expired.add(connection.physical());
+            }
+        }
+        evicted.addAndGet(expired.size());
+        expired.forEach(ConnectionPool::closeQuietly);
+    }
+
+    private void reportLeaks() {
+        long now = System.nanoTime();
+        long threshold = settings.leakThreshold().toNanos();
+        for (Lease lease : leased) {
+            if (!lease.leakReported && now - lease.borrowedAt > threshold) {
+                lease.leakReported = true;
+                leaks.incrementAndGet();
+                System.err.println("Соединение с базой данных удерживается дольше "
+                        + settings.leakThreshold().toSeconds() + " с; место получения:");
+                lease.borrowSite.printStackTrace();
+            }
+        }
+    }
+
+    private void fillToMinimum() {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() + leased.size() >= settings.minIdle()) {
+                    return;
+                }
+            }
+            try {
+                Connection connection = open();
+                synchronized (idle) {
+                    idle.addLast(new IdleConnection(connection, System.nanoTime()));
+                }
+            } catch (SQLException ex) {
+                // the database may be down; the next borrow reports the error to the user
+                return;
+            }
+        }
+    }
+
+    private static boolean isValid(Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException ex) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // the connection is discarded either way
+        }
+    }
+
+    /**
+     * Point-in-time pool counters; wait times cover the time spent waiting for a free slot.
+     */
+    public record Stats(int open,
+                        int idle,
+                        int active,
+                        long borrowed,
+                        long created,
+                        long evicted,
+                        long timeouts,
+                        long leaks,
+                        Duration averageWait,
+                        Duration maxWait) {
+    }
+
+    private record IdleConnection(Connection physical, long returnedAt) {
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private final long borrowedAt = System.nanoTime();
+        private final Throwable borrowSite = new Throwable("Соединение получено здесь");
+        private volatile boolean returned;
+        private volatile boolean leakReported;
+
+        private Lease(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        @Override
+        public Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!returned) {
+                        returned = true;
+                        release(this);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return returned || physical.isClosed();
+                }
+                case "equals" -> {
+                    return target == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(target);
+                }
+                case "toString" -> {
+                    return "Pooled[" + physical + "]";
+                }
+                default -> {
+                }
+            }
+            if (returned) {
+                throw new SQLException("Соединение уже возвращено в пул");
+            }
+            try {
+                return method.invoke(physical, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.infosecconference.desktop.db;
 
 import com.infosecconference.desktop.config.AppConfiguration;
+import com.infosecconference.desktop.config.PoolSettings;
 import com.infosecconference.desktop.util.SQLFunction;
 import com.infosecconference.desktop.util.SQLRunnable;
 
@@ -9,32 +10,59 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 
 /**
- * Thin JDBC helper that centralises access to the MySQL database.
+ * Thin JDBC helper that centralises access to the MySQL database. Connections come from a {@link ConnectionPool}
+ * unless pooling is disabled with {@code db.pool.enabled=false}.
  */
-public final class DatabaseManager {
+public final class DatabaseManager implements AutoCloseable {
     private final AppConfiguration configuration;
+    private final ConnectionPool pool;
 
-    private DatabaseManager(AppConfiguration configuration) {
+    private DatabaseManager(AppConfiguration configuration, ConnectionPool pool) {
         this.configuration = configuration;
+        this.pool = pool;
     }
 
     public static DatabaseManager from(AppConfiguration configuration) {
-        return new DatabaseManager(configuration);
+        PoolSettings settings = configuration.poolSettings();
+        ConnectionPool pool = settings.enabled()
+                ? new ConnectionPool(configuration.databaseUrl(), configuration.databaseUser(),
+                        configuration.databasePassword(), settings)
+                : null;
+        return new DatabaseManager(configuration, pool);
     }
 
     public Connection getConnection() throws SQLException {
+        if (pool != null) {
+            return pool.borrow();
+        }
         return DriverManager.getConnection(
                 configuration.databaseUrl(),
                 configuration.databaseUser(),
                 configuration.databasePassword());
     }
 
+    /**
+     * Current pool counters, or {@code null} when pooling is disabled.
+     */
+    public ConnectionPool.Stats poolStats() {
+        return pool != null ? pool.stats() : null;
+    }
+
     public void ensureConnection() throws SQLException {
         try (Connection connection = getConnection()) {
             // no-op, just validates connectivity
         }
     }
 
+    /**
+     * Brings the schema up to date; see {@link MigrationRunner}.
+     *
+     * @return number of migrations applied
+     */
+    public int migrate() throws SQLException {
+        return new MigrationRunner(this).migrate();
+    }
+
     public void executeInTransaction(SQLRunnable runnable) throws SQLException {
         executeInTransaction(conn -> {
             runnable.run(conn);
@@ -58,4 +86,11 @@ public final class DatabaseManager {
             }
         }
     }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
 }
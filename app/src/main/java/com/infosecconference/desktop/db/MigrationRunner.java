@@ -0,0 +1,220 @@
+package com.infosecconference.desktop.db;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies the versioned SQL scripts from {@code db/migration} in order and records them in
+ * {@code schema_migrations}. MySQL commits DDL implicitly, so each script is recorded right after its last
+ * statement succeeds and there is no rollback: every script is written to be re-runnable, so the next start
+ * finishes a script that failed halfway once the cause is fixed. Privileges known to be needed are checked before
+ * a script starts.
+ */
+public final class MigrationRunner {
+    private static final String LOCATION = "db/migration/";
+    private static final List<String> MIGRATIONS = List.of(
+            "V1__baseline_schema.sql",
+            "V2__lookup_indexes.sql",
+            "V3__conference_summary.sql",
+            "V4__change_tracking.sql",
+            "V5__schedule_tracking.sql");
+    private static final String LOCK_NAME = "cybershield_schema_migrations";
+    private static final int LOCK_TIMEOUT_SECONDS = 30;
+    private static final String SUPER_PRIVILEGE = """
+            SELECT COUNT(*) FROM information_schema.USER_PRIVILEGES
+            WHERE PRIVILEGE_TYPE = 'SUPER'
+              AND GRANTEE = CONCAT('''', SUBSTRING_INDEX(CURRENT_USER(), '@', 1), '''@''',
+                                   SUBSTRING_INDEX(CURRENT_USER(), '@', -1), '''')
+            """;
+
+    private final DatabaseManager databaseManager;
+
+    MigrationRunner(DatabaseManager databaseManager) {
+        this.databaseManager = databaseManager;
+    }
+
+    /**
+     * @return number of migrations applied by this call
+     */
+    public int migrate() throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            lock(connection);
+            try {
+                createHistoryTable(connection);
+                Map<Integer, String> applied = appliedChecksums(connection);
+                int count = 0;
+                for (String name : MIGRATIONS) {
+                    int version = versionOf(name);
+                    String script = readScript(name);
+                    String checksum = checksum(script);
+                    String recorded = applied.get(version);
+                    if (recorded != null) {
+                        if (!recorded.equals(checksum)) {
+                            throw new SQLException("Миграция " + name + " изменена после применения");
+                        }
+                        continue;
+                    }
+                    if (script.contains("CREATE TRIGGER")) {
+                        checkTriggerPrivilege(connection, name);
+                    }
+                    apply(connection, name, script);
+                    record(connection, version, name, checksum);
+                    count++;
+                }
+                return count;
+            } finally {
+                unlock(connection);
+            }
+        }
+    }
+
+    private void lock(Connection connection) throws SQLException {
+        // several desktop clients may start against the same database at once
+        try (PreparedStatement statement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet rs = statement.executeQuery()) {
+                if (!rs.next() || rs.getInt(1) != 1) {
+                    throw new SQLException("Не удалось получить блокировку для миграции схемы");
+                }
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            statement.setString(1, LOCK_NAME);
+            statement.executeQuery().close();
+        }
+    }
+
+    /**
+     * With binary logging on (the MySQL 8 default) creating a trigger needs SUPER or
+     * {@code log_bin_trust_function_creators}; without them the script would stop after its table changes.
+     */
+    private void checkTriggerPrivilege(Connection connection, String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT @@log_bin, @@log_bin_trust_function_creators")) {
+            rs.next();
+            if (!rs.getBoolean(1) || rs.getBoolean(2)) {
+                return;
+            }
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(SUPER_PRIVILEGE)) {
+            if (rs.next() && rs.getInt(1) > 0) {
+                return;
+            }
+        }
+        throw new SQLException("Миграция " + name + " создаёт триггеры: при включённом двоичном журнале нужна "
+                + "привилегия SUPER или параметр сервера log_bin_trust_function_creators = 1");
+    }
+
+    private void createHistoryTable(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("""
+                    CREATE TABLE IF NOT EXISTS schema_migrations (
+                        version INT PRIMARY KEY,
+                        script VARCHAR(255) NOT NULL,
+                        checksum CHAR(64) NOT NULL,
+                        applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                    )
+                    """);
+        }
+    }
+
+    private Map<Integer, String> appliedChecksums(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT version, checksum FROM schema_migrations")) {
+            while (rs.next()) {
+                applied.put(rs.getInt(1), rs.getString(2));
+            }
+        }
+        return applied;
+    }
+
+    private void apply(Connection connection, String name, String script) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            for (String sql : splitStatements(script)) {
+                try {
+                    statement.execute(sql);
+                } catch (SQLException ex) {
+                    throw new SQLException("Ошибка миграции " + name + ": " + ex.getMessage(), ex.getSQLState(), ex);
+                }
+            }
+        }
+    }
+
+    private void record(Connection connection, int version, String name, String checksum) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO schema_migrations(version, script, checksum) VALUES (?, ?, ?)")) {
+            statement.setInt(1, version);
+            statement.setString(2, name);
+            statement.setString(3, checksum);
+            statement.executeUpdate();
+        }
+    }
+
+    private static int versionOf(String name) {
+        return Integer.parseInt(name.substring(1, name.indexOf("__")));
+    }
+
+    private static String readScript(String name) throws SQLException {
+        try (InputStream stream = MigrationRunner.class.getClassLoader().getResourceAsStream(LOCATION + name)) {
+            if (stream == null) {
+                throw new SQLException("Не найден скрипт миграции " + name);
+            }
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException ex) {
+            throw new SQLException("Не удалось прочитать скрипт миграции " + name, ex);
+        }
+    }
+
+    /**
+     * Splits on semicolons that end a line; scripts keep to one statement terminator per line and
+     * {@code --} comments on their own lines.
+     */
+    private static List<String> splitStatements(String script) {
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (String line : script.split("\\R")) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                continue;
+            }
+            current.append(line).append('\n');
+            if (trimmed.endsWith(";")) {
+                String sql = current.toString().trim();
+                statements.add(sql.substring(0, sql.length() - 1));
+                current.setLength(0);
+            }
+        }
+        if (!current.toString().isBlank()) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+
+    private static String checksum(String script) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(script.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 недоступен", ex);
+        }
+    }
+}
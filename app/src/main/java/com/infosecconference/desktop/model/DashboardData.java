@@ -0,0 +1,16 @@
+package com.infosecconference.desktop.model;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the main window shows after one refresh: counters, events, upcoming schedule and the first rows of
+ * every roster by role.
+ */
+public record DashboardData(SummarySnapshot summary,
+                            List<Event> events,
+                            List<Activity> activities,
+                            Map<String, List<ConferenceUser>> users,
+                            LocalDateTime loadedAt) {
+}
@@ -0,0 +1,13 @@
+package com.infosecconference.desktop.model;
+
+/**
+ * Problem found in the schedule: one person booked into two overlapping activities, or an activity held outside
+ * the dates of its event ({@code other} and {@code person} are then {@code null}).
+ */
+public record ScheduleConflict(Kind kind, ScheduleSlot slot, ScheduleSlot other, ScheduleSlot.Assignee person) {
+
+    public enum Kind {
+        OVERLAP,
+        OUTSIDE_EVENT
+    }
+}
@@ -0,0 +1,26 @@
+package com.infosecconference.desktop.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Activity reduced to what schedule checks need: its time, its event's dates and who is booked into it.
+ */
+public record ScheduleSlot(long activityId,
+                           String activityName,
+                           long eventId,
+                           String eventTitle,
+                           LocalDate eventStart,
+                           LocalDate eventEnd,
+                           LocalDateTime start,
+                           LocalDateTime end,
+                           List<Assignee> assignees) {
+
+    public ScheduleSlot {
+        assignees = List.copyOf(assignees);
+    }
+
+    public record Assignee(long userId, String fullName, boolean moderator) {
+    }
+}
@@ -0,0 +1,270 @@
+package com.infosecconference.desktop.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list of users stored column by column. Ids and birth dates are primitive arrays, per-person text is
+ * packed into one UTF-8 byte array per column, and roles, cities and organizations are dictionary-encoded, so every city and country exists once per roster however many people
+ * live there. {@link #get(int)} assembles a {@link ConferenceUser} on demand; callers that keep the returned
+ * records hold them themselves.
+ */
+public final class UserRoster extends AbstractList<ConferenceUser> implements RandomAccess {
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final int NONE = -1;
+    private static final int INITIAL_ROWS = 64;
+
+    private final int size;
+    private final long[] ids;
+    private final StringColumn fullNames;
+    private final StringColumn emails;
+    private final int[] birthDays;
+    private final StringColumn phones;
+    private final StringColumn photoPaths;
+    private final int[] roleCodes;
+    private final int[] cityCodes;
+    private final int[] organizationCodes;
+    private final String[] roles;
+    private final City[] cities;
+    private final String[] organizations;
+
+    private UserRoster(Builder builder) {
+        this.size = builder.size;
+        this.ids = Arrays.copyOf(builder.ids, size);
+        this.fullNames = builder.fullNames.build();
+        this.emails = builder.emails.build();
+        this.birthDays = Arrays.copyOf(builder.birthDays, size);
+        this.phones = builder.phones.build();
+        this.photoPaths = builder.photoPaths.build();
+        this.roleCodes = Arrays.copyOf(builder.roleCodes, size);
+        this.cityCodes = Arrays.copyOf(builder.cityCodes, size);
+        this.organizationCodes = Arrays.copyOf(builder.organizationCodes, size);
+        this.roles = builder.roles.toArray(new String[0]);
+        this.cities = builder.cities.toArray(new City[0]);
+        this.organizations = builder.organizations.toArray(new String[0]);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static UserRoster copyOf(List<ConferenceUser> users) {
+        if (users instanceof UserRoster roster) {
+            return roster;
+        }
+        Builder builder = builder();
+        users.forEach(builder::add);
+        return builder.build();
+    }
+
+    @Override
+    public ConferenceUser get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        int birthDay = birthDays[index];
+        return new ConferenceUser(
+                ids[index],
+                fullNames.get(index),
+                emails.get(index),
+                lookup(roles, roleCodes[index]),
+                birthDay != NO_DATE ? LocalDate.ofEpochDay(birthDay) : null,
+                lookup(cities, cityCodes[index]),
+                lookup(organizations, organizationCodes[index]),
+                phones.get(index),
+                photoPaths.get(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    public String fullNameAt(int index) {
+        return fullNames.get(index);
+    }
+
+    /**
+     * Number of distinct cities referenced by the roster.
+     */
+    public int cityCount() {
+        return cities.length;
+    }
+
+    private static <T> T lookup(T[] dictionary, int code) {
+        return code != NONE ? dictionary[code] : null;
+    }
+
+    /**
+     * Collects rows in order; cities and countries are matched by id and the first instance seen is kept.
+     */
+    public static final class Builder {
+        private int size;
+        private long[] ids = new long[INITIAL_ROWS];
+        private final StringColumn.Builder fullNames = new StringColumn.Builder();
+        private final StringColumn.Builder emails = new StringColumn.Builder();
+        private int[] birthDays = new int[INITIAL_ROWS];
+        private final StringColumn.Builder phones = new StringColumn.Builder();
+        private final StringColumn.Builder photoPaths = new StringColumn.Builder();
+        private int[] roleCodes = new int[INITIAL_ROWS];
+        private int[] cityCodes = new int[INITIAL_ROWS];
+        private int[] organizationCodes = new int[INITIAL_ROWS];
+
+        private final Map<String, Integer> roleIndex = new HashMap<>();
+        private final List<String> roles = new ArrayList<>();
+        private final Map<Long, Integer> cityIndex = new HashMap<>();
+        private final List<City> cities = new ArrayList<>();
+        private final Map<Long, Country> countries = new HashMap<>();
+        private final Map<String, Integer> organizationIndex = new HashMap<>();
+        private final List<String> organizations = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder add(ConferenceUser user) {
+            return add(user.id(), user.fullName(), user.email(), user.role(), user.birthDate(), user.city(),
+                    user.organization(), user.phone(), user.photoPath());
+        }
+
+        public Builder add(long id,
+                           String fullName,
+                           String email,
+                           String role,
+                           LocalDate birthDate,
+                           City city,
+                           String organization,
+                           String phone,
+                           String photoPath) {
+            if (size == ids.length) {
+                grow();
+            }
+            ids[size] = id;
+            fullNames.add(fullName);
+            emails.add(email);
+            birthDays[size] = birthDate != null ? Math.toIntExact(birthDate.toEpochDay()) : NO_DATE;
+            phones.add(phone);
+            photoPaths.add(photoPath);
+            roleCodes[size] = encode(roleIndex, roles, role);
+            cityCodes[size] = city != null ? cityCode(city) : NONE;
+            organizationCodes[size] = encode(organizationIndex, organizations, organization);
+            size++;
+            return this;
+        }
+
+        /**
+         * Returns the shared instance for this city id, creating it from the given values on first use.
+         */
+        public City city(long id, String name, Country country) {
+            Integer code = cityIndex.get(id);
+            if (code != null) {
+                return cities.get(code);
+            }
+            City city = new City(id, name, country != null ? country(country) : null);
+            cityIndex.put(id, cities.size());
+            cities.add(city);
+            return city;
+        }
+
+        /**
+         * Returns the shared instance for this country id.
+         */
+        public Country country(long id, String name, String isoCode) {
+            return countries.computeIfAbsent(id, key -> new Country(id, name, isoCode));
+        }
+
+        public UserRoster build() {
+            return new UserRoster(this);
+        }
+
+        private Country country(Country country) {
+            return countries.computeIfAbsent(country.id(), key -> country);
+        }
+
+        private int cityCode(City city) {
+            city(city.id(), city.name(), city.country());
+            return cityIndex.get(city.id());
+        }
+
+        private static int encode(Map<String, Integer> index, List<String> values, String value) {
+            if (value == null) {
+                return NONE;
+            }
+            return index.computeIfAbsent(value, key -> {
+                values.add(key);
+                return values.size() - 1;
+            });
+        }
+
+        private void grow() {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            birthDays = Arrays.copyOf(birthDays, capacity);
+            roleCodes = Arrays.copyOf(roleCodes, capacity);
+            cityCodes = Arrays.copyOf(cityCodes, capacity);
+            organizationCodes = Arrays.copyOf(organizationCodes, capacity);
+        }
+    }
+
+    /**
+     * Strings of one column packed back to back as UTF-8; a negative length marks {@code null}.
+     */
+    private static final class StringColumn {
+        private final byte[] data;
+        private final int[] offsets;
+        private final int[] lengths;
+
+        private StringColumn(byte[] data, int[] offsets, int[] lengths) {
+            this.data = data;
+            this.offsets = offsets;
+            this.lengths = lengths;
+        }
+
+        private String get(int index) {
+            int length = lengths[index];
+            return length >= 0 ? new String(data, offsets[index], length, StandardCharsets.UTF_8) : null;
+        }
+
+        private static final class Builder {
+            private byte[] data = new byte[1024];
+            private int dataLength;
+            private int[] offsets = new int[INITIAL_ROWS];
+            private int[] lengths = new int[INITIAL_ROWS];
+            private int size;
+
+            private void add(String value) {
+                if (size == offsets.length) {
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                    lengths = Arrays.copyOf(lengths, size * 2);
+                }
+                offsets[size] = dataLength;
+                if (value == null) {
+                    lengths[size++] = -1;
+                    return;
+                }
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (dataLength + bytes.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, dataLength + bytes.length));
+                }
+                System.arraycopy(bytes, 0, data, dataLength, bytes.length);
+                dataLength += bytes.length;
+                lengths[size++] = bytes.length;
+            }
+
+            private StringColumn build() {
+                return new StringColumn(Arrays.copyOf(data, dataLength), Arrays.copyOf(offsets, size),
+                        Arrays.copyOf(lengths, size));
+            }
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects rows for one table and writes them as multi-row {@code INSERT ... ON DUPLICATE KEY UPDATE} batches.
+ * Ids of keys already present in the {@link ImportContext.KeyIndex} are taken from it; only newly inserted keys
+ * are read back, with a single query per batch. The ids are then handed to the per-row callbacks, so a batch costs
+ * one or two round trips instead of two or three per row.
+ * <p>
+ * Which stored row a queued key hit is decided by the server: the read-back compares every queued key with the
+ * key columns under their own collation and returns the queued row's position with the id, so keys the collation
+ * treats as equal (case, {@code ё}/{@code е}, accents) find the row the upsert actually wrote.
+ */
+public final class BulkUpsertWriter {
+    public static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final ImportSession session;
+    private final String table;
+    private final List<String> columns;
+    private final List<String> updateAssignments;
+    private final int[] keyPositions;
+    private final List<String> keyColumns;
+    private final boolean uniqueKey;
+    private final int batchSize;
+    private final ImportContext.KeyIndex index;
+
+    private final Map<String, PendingRow> pending = new LinkedHashMap<>();
+
+    /**
+     * @param table             target table
+     * @param columns           inserted columns, in the order values are passed to {@link #add}
+     * @param keyColumns        natural key columns, a subset of {@code columns}
+     * @param updateAssignments {@code SET} fragments applied to existing rows, see {@link #values(String)}
+     * @param uniqueKey         whether the natural key is backed by a unique index; otherwise existing rows are
+     *                          updated through the primary key found in {@code index}
+     * @param index             known natural keys of the table, extended with every inserted row
+     */
+    public BulkUpsertWriter(ImportSession session,
+                            String table,
+                            List<String> columns,
+                            List<String> keyColumns,
+                            List<String> updateAssignments,
+                            boolean uniqueKey,
+                            int batchSize,
+                            ImportContext.KeyIndex index) {
+        this.session = session;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.keyColumns = List.copyOf(keyColumns);
+        this.updateAssignments = List.copyOf(updateAssignments);
+        this.uniqueKey = uniqueKey;
+        this.batchSize = batchSize;
+        this.index = index;
+        this.keyPositions = new int[keyColumns.size()];
+        for (int i = 0; i < keyColumns.size(); i++) {
+            keyPositions[i] = columns.indexOf(keyColumns.get(i));
+            if (keyPositions[i] < 0) {
+                throw new IllegalArgumentException("Ключевой столбец " + keyColumns.get(i) + " отсутствует в списке столбцов");
+            }
+        }
+    }
+
+    /**
+     * Builds the default assignment that overwrites {@code column} with the incoming value.
+     */
+    public static String values(String column) {
+        return column + " = VALUES(" + column + ")";
+    }
+
+    /**
+     * Queues a row; {@code onId} receives the row identifier once the batch containing it has been written.
+     * Rows sharing a natural key within a batch are merged, the last values win.
+     */
+    public void add(List<Object> values, SQLConsumer<Long> onId) throws SQLException {
+        if (values.size() != columns.size()) {
+            throw new IllegalArgumentException("Ожидалось " + columns.size() + " значений для " + table);
+        }
+        String key = keyOf(values);
+        PendingRow row = pending.get(key);
+        if (row == null) {
+            pending.put(key, new PendingRow(key, new ArrayList<>(values), onId));
+        } else {
+            row.values = new ArrayList<>(values);
+            row.callbacks.add(onId);
+        }
+        if (pending.size() >= batchSize) {
+            flush();
+        }
+    }
+
+    public void flush() throws SQLException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<String, PendingRow> batch = new LinkedHashMap<>(pending);
+        pending.clear();
+
+        Map<String, Long> ids = new HashMap<>();
+        List<PendingRow> created = new ArrayList<>();
+        batch.forEach((key, row) -> {
+            Long known = index.get(key);
+            if (known != null) {
+                ids.put(key, known);
+            } else {
+                created.add(row);
+            }
+        });
+        insert(batch, ids);
+        if (!created.isEmpty()) {
+            long[] createdIds = selectIds(created);
+            for (int i = 0; i < created.size(); i++) {
+                if (createdIds[i] != 0) {
+                    index.put(created.get(i).key, createdIds[i]);
+                    ids.put(created.get(i).key, createdIds[i]);
+                }
+            }
+        }
+
+        for (Map.Entry<String, PendingRow> entry : batch.entrySet()) {
+            Long id = ids.get(entry.getKey());
+            if (id == null) {
+                throw new SQLException("Не удалось получить идентификатор записи " + table + " для ключа " + entry.getKey());
+            }
+            for (SQLConsumer<Long> callback : entry.getValue().callbacks) {
+                callback.accept(id);
+            }
+        }
+    }
+
+    private void insert(Map<String, PendingRow> batch, Map<String, Long> existingIds) throws SQLException {
+        boolean withId = !uniqueKey;
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(table).append('(');
+        if (withId) {
+            sql.append("id, ");
+        }
+        sql.append(String.join(", ", columns)).append(") VALUES ");
+        String placeholders = rowPlaceholders(columns.size() + (withId ? 1 : 0));
+        // existing rows of a table without a unique natural key are addressed through their primary key
+        for (int i = 0; i < batch.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(placeholders);
+        }
+        sql.append(" ON DUPLICATE KEY UPDATE ");
+        sql.append(updateAssignments.isEmpty() ? "id = id" : String.join(", ", updateAssignments));
+
+        PreparedStatement statement = session.prepare(sql.toString());
+        int index = 1;
+        for (Map.Entry<String, PendingRow> entry : batch.entrySet()) {
+            if (withId) {
+                bind(statement, index++, existingIds.get(entry.getKey()));
+            }
+            for (Object value : entry.getValue().values) {
+                bind(statement, index++, value);
+            }
+        }
+        session.executeUpdate(statement);
+    }
+
+    /**
+     * Ids of {@code rows} by position; one {@code (SELECT position, id ... WHERE key = ?)} per row, joined with
+     * {@code UNION ALL}, so the comparison is the key column's own. The lowest id wins where the key is not unique.
+     */
+    private long[] selectIds(List<PendingRow> rows) throws SQLException {
+        StringBuilder lookup = new StringBuilder("(SELECT ?, id FROM ").append(table).append(" WHERE ");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            lookup.append(i == 0 ? "" : " AND ").append(keyColumns.get(i)).append(" = ?");
+        }
+        lookup.append(" ORDER BY id LIMIT 1)");
+        StringBuilder sql = new StringBuilder();
+        for (int i = 0; i < rows.size(); i++) {
+            sql.append(i == 0 ? "" : " UNION ALL ").append(lookup);
+        }
+
+        long[] ids = new long[rows.size()];
+        PreparedStatement statement = session.prepare(sql.toString());
+        int index = 1;
+        for (int i = 0; i < rows.size(); i++) {
+            statement.setInt(index++, i);
+            for (int position : keyPositions) {
+                bind(statement, index++, rows.get(i).values.get(position));
+            }
+        }
+        try (ResultSet rs = session.executeQuery(statement)) {
+            while (rs.next()) {
+                ids[rs.getInt(1)] = rs.getLong(2);
+            }
+        }
+        return ids;
+    }
+
+    private String keyOf(List<Object> values) {
+        List<Object> key = new ArrayList<>(keyPositions.length);
+        for (int position : keyPositions) {
+            key.add(values.get(position));
+        }
+        return normalizeKey(key);
+    }
+
+    /**
+     * Client-side key for merging queued rows and for the {@link ImportContext.KeyIndex}: trimmed and lower-cased.
+     * It is not meant to reproduce the collation; ids are matched to queued rows on the server.
+     */
+    static String normalizeKey(List<Object> key) {
+        StringBuilder builder = new StringBuilder();
+        for (Object part : key) {
+            if (!builder.isEmpty()) {
+                builder.append('\u0001');
+            }
+            if (part instanceof String text) {
+                builder.append(text.trim().toLowerCase(Locale.ROOT));
+            } else if (part instanceof Number number) {
+                builder.append(number.longValue());
+            } else {
+                builder.append(part);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static String rowPlaceholders(int size) {
+        StringBuilder builder = new StringBuilder("(");
+        for (int i = 0; i < size; i++) {
+            builder.append(i == 0 ? "?" : ", ?");
+        }
+        return builder.append(')').toString();
+    }
+
+    private static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value == null) {
+            statement.setNull(index, java.sql.Types.NULL);
+        } else if (value instanceof LocalDate date) {
+            statement.setDate(index, Date.valueOf(date));
+        } else if (value instanceof LocalDateTime dateTime) {
+            statement.setTimestamp(index, Timestamp.valueOf(dateTime));
+        } else if (value instanceof Long number) {
+            statement.setLong(index, number);
+        } else if (value instanceof Integer number) {
+            statement.setInt(index, number);
+        } else {
+            statement.setString(index, value.toString());
+        }
+    }
+
+    private static final class PendingRow {
+        private final String key;
+        private List<Object> values;
+        private final List<SQLConsumer<Long>> callbacks = new ArrayList<>();
+
+        private PendingRow(String key, List<Object> values, SQLConsumer<Long> callback) {
+            this.key = key;
+            this.values = values;
+            this.callbacks.add(callback);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.config.DashboardCacheSettings;
+import com.infosecconference.desktop.db.DatabaseManager;
+import com.infosecconference.desktop.model.Activity;
+import com.infosecconference.desktop.model.ConferenceUser;
+import com.infosecconference.desktop.model.Event;
+import com.infosecconference.desktop.model.ScheduleSlot;
+import com.infosecconference.desktop.model.SummarySnapshot;
+import com.infosecconference.desktop.model.UserRoster;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * {@link DashboardService} that answers repeated requests from a {@link QueryCache}. Results live for the configured
+ * time or until {@link #importCommitted} drops them. The tables may also change outside an import, so at most once a
+ * second the change stamps of {@link ChangeTracking} are read and the cache is dropped when they moved. Lists
+ * are returned unmodifiable because every caller shares the same instance; rosters are already read-only
+ * {@link UserRoster}s and are not copied.
+ */
+public class CachingDashboardService extends DashboardService implements ImportCommitListener {
+    private static final long VERSION_CHECK_NANOS = Duration.ofSeconds(1).toNanos();
+    private static final int MISSING_TABLE = 1146;
+    private static final int MISSING_COLUMN = 1054;
+
+    private final DatabaseManager databaseManager;
+    private final DashboardCacheSettings settings;
+    private final QueryCache<Query, Object> cache;
+    private final Object versionLock = new Object();
+    private List<Timestamp> version;
+    private long versionCheckedAt;
+
+    public CachingDashboardService(DatabaseManager databaseManager, DashboardCacheSettings settings) {
+        super(databaseManager);
+        this.databaseManager = databaseManager;
+        this.settings = settings;
+        this.cache = new QueryCache<>(settings.maxEntries());
+    }
+
+    @Override
+    public SummarySnapshot loadSummary() throws SQLException {
+        dropIfChanged();
+        return (SummarySnapshot) cache.get(new Query("summary", null), settings.summaryTtl(),
+                query -> super.loadSummary());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ConferenceUser> loadUsersByRole(String role) throws SQLException {
+        dropIfChanged();
+        return (List<ConferenceUser>) cache.get(new Query("roster", role), settings.rosterTtl(),
+                query -> UserRoster.copyOf(super.loadUsersByRole(role)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Activity> loadUpcomingActivities(int limit) throws SQLException {
+        dropIfChanged();
+        return (List<Activity>) cache.get(new Query("schedule", limit), settings.scheduleTtl(),
+                query -> List.copyOf(super.loadUpcomingActivities(limit)));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ScheduleSlot> loadScheduleSlots() throws SQLException {
+        dropIfChanged();
+        return (List<ScheduleSlot>) cache.get(new Query("slots", null), settings.scheduleTtl(),
+                query -> List.copyOf(super.loadScheduleSlots()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Event> loadEvents() throws SQLException {
+        dropIfChanged();
+        return (List<Event>) cache.get(new Query("events", null), settings.eventsTtl(),
+                query -> List.copyOf(super.loadEvents()));
+    }
+
+    /**
+     * Drops the cache first: a full load that follows a fresh watermark must not be served older results, or the
+     * changes between the two would never be requested.
+     */
+    @Override
+    public LocalDateTime changeWatermark() throws SQLException {
+        invalidate();
+        return super.changeWatermark();
+    }
+
+    @Override
+    public void importCommitted(ImportReport report) {
+        invalidate();
+    }
+
+    @Override
+    public void invalidate() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * Drops the cache when a tracked table or the summary counters changed since the last check.
+     */
+    private void dropIfChanged() throws SQLException {
+        synchronized (versionLock) {
+            long now = System.nanoTime();
+            if (version != null && now - versionCheckedAt < VERSION_CHECK_NANOS) {
+                return;
+            }
+            List<Timestamp> current;
+            try (Connection connection = databaseManager.getConnection()) {
+                current = ChangeTracking.lastChange(connection);
+            } catch (SQLException ex) {
+                if (ex.getErrorCode() != MISSING_TABLE && ex.getErrorCode() != MISSING_COLUMN) {
+                    throw ex;
+                }
+                // no change tracking yet: only the lifetimes apply
+                current = List.of();
+            }
+            if (version != null && !version.equals(current)) {
+                invalidate();
+            }
+            version = current;
+            versionCheckedAt = now;
+        }
+    }
+
+    public QueryCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    private record Query(String method, Object argument) {
+    }
+}
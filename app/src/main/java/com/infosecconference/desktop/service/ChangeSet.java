@@ -0,0 +1,65 @@
+package com.infosecconference.desktop.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Rows changed and ids deleted since a watermark, see {@link DashboardService#loadUsersChangedSince}.
+ *
+ * @param changed        inserted or updated rows
+ * @param deletedIds     ids of removed rows
+ * @param watermark      value to pass with the next request
+ * @param reloadRequired the old watermark is past the tombstone retention; the client must load everything
+ */
+public record ChangeSet<T>(List<T> changed, Set<Long> deletedIds, LocalDateTime watermark, boolean reloadRequired) {
+    static <T> ChangeSet<T> reload(LocalDateTime watermark) {
+        return new ChangeSet<>(List.of(), Set.of(), watermark, true);
+    }
+
+    public boolean isEmpty() {
+        return changed.isEmpty() && deletedIds.isEmpty();
+    }
+
+    /**
+     * Merges the changes into {@code current}, which must be sorted by {@code order}: deleted and changed rows are
+     * taken out, and the changed rows for which {@code belongs} holds are inserted at their sorted positions.
+     * Unchanged elements are reused as they are.
+     */
+    public List<T> applyTo(List<T> current,
+                           ToLongFunction<? super T> idOf,
+                           Predicate<? super T> belongs,
+                           Comparator<? super T> order) {
+        if (isEmpty()) {
+            return current;
+        }
+        Set<Long> touched = new HashSet<>(deletedIds);
+        List<T> incoming = new ArrayList<>();
+        for (T row : changed) {
+            touched.add(idOf.applyAsLong(row));
+            if (belongs.test(row)) {
+                incoming.add(row);
+            }
+        }
+        incoming.sort(order);
+
+        List<T> merged = new ArrayList<>(current.size() + incoming.size());
+        int next = 0;
+        for (T row : current) {
+            if (touched.contains(idOf.applyAsLong(row))) {
+                continue;
+            }
+            while (next < incoming.size() && order.compare(incoming.get(next), row) < 0) {
+                merged.add(incoming.get(next++));
+            }
+            merged.add(row);
+        }
+        merged.addAll(incoming.subList(next, incoming.size()));
+        return merged;
+    }
+}
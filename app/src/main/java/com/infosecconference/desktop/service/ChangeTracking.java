@@ -0,0 +1,119 @@
+package com.infosecconference.desktop.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Row versioning for incremental refreshes. {@code conference_users}, {@code events}, {@code activities} and
+ * {@code activity_jury} carry an {@code updated_at} stamp that MySQL moves on every real change, and delete triggers
+ * record removed ids in {@code row_tombstones}; a removed jury assignment is recorded under its activity id. A client remembers the watermark returned with its last read and asks for the rows
+ * stamped after it.
+ */
+public final class ChangeTracking {
+    /**
+     * Rows are stamped when written but become visible on commit; watermarks are moved back by this much so a
+     * write committed shortly after the read is still picked up next time. Re-delivered rows merge idempotently.
+     */
+    static final Duration OVERLAP = Duration.ofSeconds(10);
+    /**
+     * Tombstones older than this are pruned; clients with an older watermark reload everything.
+     */
+    static final Duration TOMBSTONE_RETENTION = Duration.ofDays(7);
+
+    static final String USERS = "conference_users";
+    static final String EVENTS = "events";
+    static final String ACTIVITIES = "activities";
+    static final String ACTIVITY_JURY = "activity_jury";
+    private static final List<String> TRACKED_TABLES = List.of(USERS, EVENTS, ACTIVITIES, ACTIVITY_JURY);
+
+    private ChangeTracking() {
+    }
+
+    /**
+     * Database clock, so watermarks do not depend on the client's clock.
+     */
+    public static LocalDateTime serverTime(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT NOW(6)");
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return rs.getTimestamp(1).toLocalDateTime();
+        }
+    }
+
+    /**
+     * Watermark for a read that starts now.
+     */
+    static LocalDateTime watermark(Connection connection) throws SQLException {
+        return serverTime(connection).minus(OVERLAP);
+    }
+
+    /**
+     * Latest change stamps of the tracked tables and the summary counters; a different result means data changed.
+     */
+    static List<Timestamp> lastChange(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT (SELECT MAX(updated_at) FROM conference_users),
+                       (SELECT MAX(updated_at) FROM events),
+                       (SELECT MAX(updated_at) FROM activities),
+                       (SELECT MAX(updated_at) FROM activity_jury),
+                       (SELECT MAX(deleted_at) FROM row_tombstones),
+                       (SELECT MAX(recomputed_at) FROM conference_summary)
+                """);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return Arrays.asList(rs.getTimestamp(1), rs.getTimestamp(2), rs.getTimestamp(3), rs.getTimestamp(4),
+                    rs.getTimestamp(5), rs.getTimestamp(6));
+        }
+    }
+
+    static boolean expired(Connection connection, LocalDateTime watermark) throws SQLException {
+        return watermark.isBefore(serverTime(connection).minus(TOMBSTONE_RETENTION));
+    }
+
+    static Set<Long> deletedSince(Connection connection, String table, LocalDateTime watermark) throws SQLException {
+        Set<Long> ids = new HashSet<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT row_id FROM row_tombstones WHERE table_name = ? AND deleted_at > ?")) {
+            statement.setString(1, table);
+            statement.setTimestamp(2, Timestamp.valueOf(watermark));
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getLong(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Moves the stamps of rows written since {@code since} to the current time. A long import calls this right
+     * before it commits, otherwise its rows would carry stamps older than the watermark of a client that read
+     * while the import was still running.
+     */
+    static void restamp(Connection connection, LocalDateTime since) throws SQLException {
+        for (String table : TRACKED_TABLES) {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE " + table + " SET updated_at = NOW(6) WHERE updated_at >= ?")) {
+                statement.setTimestamp(1, Timestamp.valueOf(since));
+                statement.executeUpdate();
+            }
+        }
+    }
+
+    static void pruneTombstones(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "DELETE FROM row_tombstones WHERE deleted_at < NOW(6) - INTERVAL ? DAY")) {
+            statement.setLong(1, TOMBSTONE_RETENTION.toDays());
+            statement.executeUpdate();
+        }
+    }
+}
@@ -6,80 +6,268 @@ import com.infosecconference.desktop.model.City;
 import com.infosecconference.desktop.model.ConferenceUser;
 import com.infosecconference.desktop.model.Country;
 import com.infosecconference.desktop.model.Event;
+import com.infosecconference.desktop.model.ScheduleSlot;
 import com.infosecconference.desktop.model.SummarySnapshot;
+import com.infosecconference.desktop.model.UserRoster;
+import com.infosecconference.desktop.util.SQLConsumer;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class DashboardService {
+    private static final String USER_FROM = """
+            SELECT u.id, u.full_name, u.email, u.role, u.birth_date, u.organization, u.phone, u.photo_path,
+                   c.id AS city_id, c.name AS city_name,
+                   co.id AS country_id, co.name AS country_name, co.iso_code
+            FROM conference_users u
+            LEFT JOIN cities c ON u.city_id = c.id
+            LEFT JOIN countries co ON c.country_id = co.id
+            """;
+    private static final String USER_SELECT = USER_FROM + "WHERE u.role = ?\n";
+    private static final String EVENT_FROM = """
+            SELECT e.id, e.title, e.description, e.start_date, e.end_date, e.venue, e.image_path,
+                   c.id AS city_id, c.name AS city_name,
+                   co.id AS country_id, co.name AS country_name, co.iso_code
+            FROM events e
+            LEFT JOIN cities c ON e.city_id = c.id
+            LEFT JOIN countries co ON c.country_id = co.id
+            """;
+    /**
+     * Ids of the activities whose slot may differ from the one read at the watermark; every {@code ?} is the
+     * watermark. Each branch is served by an {@code updated_at} index or a foreign key index.
+     */
+    private static final String CHANGED_ACTIVITIES = """
+            SELECT a.id FROM activities a WHERE a.updated_at > ?
+            UNION SELECT a.id FROM activities a JOIN events e ON a.event_id = e.id WHERE e.updated_at > ?
+            UNION SELECT a.id FROM activities a JOIN conference_users m ON a.moderator_id = m.id WHERE m.updated_at > ?
+            UNION SELECT aj.activity_id FROM activity_jury aj WHERE aj.updated_at > ?
+            UNION SELECT aj.activity_id FROM activity_jury aj JOIN conference_users u ON aj.user_id = u.id
+                  WHERE u.updated_at > ?
+            UNION SELECT t.row_id FROM row_tombstones t WHERE t.table_name = 'activity_jury' AND t.deleted_at > ?
+            """;
+    private static final int CHANGED_ACTIVITIES_PARAMETERS = 6;
+
+    /**
+     * Client-side equivalent of the event list {@code ORDER BY e.start_date, e.id}.
+     */
+    public static final Comparator<Event> EVENT_ORDER = Comparator
+            .comparing(Event::startDate, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+            .thenComparingLong(Event::id);
+
     private final DatabaseManager databaseManager;
 
     public DashboardService(DatabaseManager databaseManager) {
         this.databaseManager = databaseManager;
     }
 
+    /**
+     * Reads the counters maintained by the import; counts the tables directly when they have not been created yet.
+     */
     public SummarySnapshot loadSummary() throws SQLException {
         try (Connection connection = databaseManager.getConnection()) {
-            long events = count(connection, "SELECT COUNT(*) FROM events");
-            long activities = count(connection, "SELECT COUNT(*) FROM activities");
-            long participants = count(connection, "SELECT COUNT(*) FROM conference_users WHERE role = 'PARTICIPANT'");
-            long moderators = count(connection, "SELECT COUNT(*) FROM conference_users WHERE role = 'MODERATOR'");
-            long jury = count(connection, "SELECT COUNT(*) FROM conference_users WHERE role = 'JURY'");
-            long organizers = count(connection, "SELECT COUNT(*) FROM conference_users WHERE role = 'ORGANIZER'");
-            long teams = count(connection, "SELECT COUNT(*) FROM teams");
-            return new SummarySnapshot(events, activities, participants, moderators, jury, organizers, teams);
+            SummarySnapshot stored = SummaryCounters.read(connection);
+            return stored != null ? stored : SummaryCounters.count(connection);
         }
     }
 
+    /**
+     * Drops cached results so the next reads go to the database; the plain service keeps none.
+     */
+    public void invalidate() {
+    }
+
     public List<ConferenceUser> loadUsersByRole(String role) throws SQLException {
-        String sql = """
-                SELECT u.id, u.full_name, u.email, u.role, u.birth_date, u.organization, u.phone, u.photo_path,
-                       c.id AS city_id, c.name AS city_name,
-                       co.id AS country_id, co.name AS country_name, co.iso_code
-                FROM conference_users u
-                LEFT JOIN cities c ON u.city_id = c.id
-                LEFT JOIN countries co ON c.country_id = co.id
-                WHERE u.role = ?
-                ORDER BY u.full_name
-                """;
+        String sql = USER_SELECT + "ORDER BY u.full_name, u.id";
 
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql)) {
             statement.setString(1, role);
             try (ResultSet rs = statement.executeQuery()) {
-                List<ConferenceUser> result = new ArrayList<>();
+                // columnar roster: cities and countries are shared instead of created per row
+                UserRoster.Builder roster = UserRoster.builder();
                 while (rs.next()) {
-                    Country country = null;
-                    long countryId = rs.getLong("country_id");
-                    if (!rs.wasNull()) {
-                        country = new Country(countryId, rs.getString("country_name"), rs.getString("iso_code"));
-                    }
-                    City city = null;
-                    long cityId = rs.getLong("city_id");
-                    if (!rs.wasNull()) {
-                        city = new City(cityId, rs.getString("city_name"), country);
+                    roster.add(readUser(rs, roster));
+                }
+                return roster.build();
+            }
+        }
+    }
+
+    /**
+     * Reads one page of a roster in {@code (full_name, id)} order, starting after {@code after}; pass {@code null}
+     * for the first page. The position is looked up in the {@code (role, full_name, id)} index, so a late page costs
+     * as much as the first one.
+     */
+    public RosterPage loadUsersByRolePage(String role, RosterPage.Cursor after, int pageSize) throws SQLException {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        try (Connection connection = databaseManager.getConnection()) {
+            return readPage(connection, role, after, pageSize);
+        }
+    }
+
+    public int countUsersByRole(String role) throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            return countUsers(connection, role);
+        }
+    }
+
+    /**
+     * Cursor to pass to {@link #loadUsersByRolePage} for a page that starts at row {@code offset}; {@code null} for
+     * the first row. Only the {@code (role, full_name, id)} index is scanned to reach the position.
+     */
+    public RosterPage.Cursor rosterCursorAt(String role, int offset) throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            return cursorAt(connection, role, offset);
+        }
+    }
+
+    /**
+     * Counts the roster and reads up to {@code limit} rows from {@code offset}; when the roster has shrunk below the
+     * offset, the last {@code limit} rows are read instead.
+     */
+    public RosterWindow loadRosterWindow(String role, int offset, int limit) throws SQLException {
+        if (limit < 1) {
+            throw new IllegalArgumentException("Размер страницы должен быть положительным");
+        }
+        try (Connection connection = databaseManager.getConnection()) {
+            int total = countUsers(connection, role);
+            int start = offset < total ? Math.max(0, offset) : Math.max(0, total - limit);
+            RosterPage page = readPage(connection, role, cursorAt(connection, role, start), limit);
+            return new RosterWindow(total, start, page.users());
+        }
+    }
+
+    private static int countUsers(Connection connection, String role) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT COUNT(*) FROM conference_users WHERE role = ?")) {
+            statement.setString(1, role);
+            try (ResultSet rs = statement.executeQuery()) {
+                rs.next();
+                return rs.getInt(1);
+            }
+        }
+    }
+
+    private static RosterPage.Cursor cursorAt(Connection connection, String role, int offset) throws SQLException {
+        if (offset <= 0) {
+            return null;
+        }
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT full_name, id FROM conference_users
+                WHERE role = ?
+                ORDER BY full_name, id
+                LIMIT 1 OFFSET ?
+                """)) {
+            statement.setString(1, role);
+            statement.setInt(2, offset - 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? new RosterPage.Cursor(rs.getString(1), rs.getLong(2)) : null;
+            }
+        }
+    }
+
+    private static RosterPage readPage(Connection connection,
+                                       String role,
+                                       RosterPage.Cursor after,
+                                       int pageSize) throws SQLException {
+        String sql = USER_SELECT
+                + (after != null ? "AND (u.full_name > ? OR (u.full_name = ? AND u.id > ?))\n" : "")
+                + "ORDER BY u.full_name, u.id\nLIMIT ?";
+
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            int index = 1;
+            statement.setString(index++, role);
+            if (after != null) {
+                statement.setString(index++, after.fullName());
+                statement.setString(index++, after.fullName());
+                statement.setLong(index++, after.id());
+            }
+            // one extra row tells whether another page follows
+            statement.setInt(index, pageSize + 1);
+            try (ResultSet rs = statement.executeQuery()) {
+                UserRoster.Builder page = UserRoster.builder();
+                boolean more = false;
+                int count = 0;
+                while (rs.next()) {
+                    if (count++ == pageSize) {
+                        more = true;
+                        break;
                     }
-                    result.add(new ConferenceUser(
-                            rs.getLong("id"),
-                            rs.getString("full_name"),
-                            rs.getString("email"),
-                            rs.getString("role"),
-                            rs.getDate("birth_date") != null ? rs.getDate("birth_date").toLocalDate() : null,
-                            city,
-                            rs.getString("organization"),
-                            rs.getString("phone"),
-                            rs.getString("photo_path")));
+                    page.add(readUser(rs, page));
+                }
+                UserRoster users = page.build();
+                RosterPage.Cursor next = more
+                        ? new RosterPage.Cursor(users.fullNameAt(pageSize - 1), users.idAt(pageSize - 1))
+                        : null;
+                return new RosterPage(users, next);
+            }
+        }
+    }
+
+    /**
+     * Passes the roster to {@code consumer} row by row while the driver streams it from the server, so memory use
+     * does not depend on the roster size. The connection stays busy until the last row has been consumed.
+     *
+     * @return number of users passed to the consumer
+     */
+    public long streamUsersByRole(String role, SQLConsumer<ConferenceUser> consumer) throws SQLException {
+        String sql = USER_SELECT + "ORDER BY u.full_name, u.id";
+
+        try (Connection connection = databaseManager.getConnection();
+             PreparedStatement statement = connection.prepareStatement(sql,
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // Connector/J streams a forward-only, read-only result row by row when the fetch size is MIN_VALUE
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setString(1, role);
+            try (ResultSet rs = statement.executeQuery()) {
+                // the builder only hands out shared city and country instances here; no rows are added to it
+                UserRoster.Builder flyweights = UserRoster.builder();
+                long count = 0;
+                while (rs.next()) {
+                    consumer.accept(readUser(rs, flyweights));
+                    count++;
                 }
-                return result;
+                return count;
             }
         }
     }
 
+    private static ConferenceUser readUser(ResultSet rs, UserRoster.Builder flyweights) throws SQLException {
+        Country country = null;
+        long countryId = rs.getLong("country_id");
+        if (!rs.wasNull()) {
+            country = flyweights.country(countryId, rs.getString("country_name"), rs.getString("iso_code"));
+        }
+        City city = null;
+        long cityId = rs.getLong("city_id");
+        if (!rs.wasNull()) {
+            city = flyweights.city(cityId, rs.getString("city_name"), country);
+        }
+        return new ConferenceUser(
+                rs.getLong("id"),
+                rs.getString("full_name"),
+                rs.getString("email"),
+                rs.getString("role"),
+                rs.getDate("birth_date") != null ? rs.getDate("birth_date").toLocalDate() : null,
+                city,
+                rs.getString("organization"),
+                rs.getString("phone"),
+                rs.getString("photo_path"));
+    }
+
     public List<Activity> loadUpcomingActivities(int limit) throws SQLException {
         String sql = """
                 SELECT a.id, a.name, a.start_time, a.end_time, a.description, a.winner_team,
@@ -180,52 +368,187 @@ public class DashboardService {
         }
     }
 
-    public List<Event> loadEvents() throws SQLException {
-        String sql = """
-                SELECT e.id, e.title, e.description, e.start_date, e.end_date, e.venue, e.image_path,
-                       c.id AS city_id, c.name AS city_name,
-                       co.id AS country_id, co.name AS country_name, co.iso_code
-                FROM events e
-                LEFT JOIN cities c ON e.city_id = c.id
-                LEFT JOIN countries co ON c.country_id = co.id
-                ORDER BY e.start_date
+    /**
+     * Every activity with its event's dates, moderator and jury, for {@link ScheduleConflicts}.
+     */
+    public List<ScheduleSlot> loadScheduleSlots() throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            return readSlots(connection, null);
+        }
+    }
+
+    /**
+     * Schedule slots changed after {@code watermark}: an activity counts as changed when its own row, its event, its
+     * moderator, one of its jury assignments or a jury member changed, or when an assignment was removed. Deleted
+     * ids are those of removed activities, including the ones removed together with their event.
+     */
+    public ChangeSet<ScheduleSlot> loadScheduleChangedSince(LocalDateTime watermark) throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            LocalDateTime next = ChangeTracking.watermark(connection);
+            if (ChangeTracking.expired(connection, watermark)) {
+                return ChangeSet.reload(next);
+            }
+            List<ScheduleSlot> changed = readSlots(connection, watermark);
+            Set<Long> deleted = ChangeTracking.deletedSince(connection, ChangeTracking.ACTIVITIES, watermark);
+            return new ChangeSet<>(changed, deleted, next, false);
+        }
+    }
+
+    /**
+     * Reads the slots of the activities changed after {@code changedSince}, or of every activity when it is
+     * {@code null}.
+     */
+    private static List<ScheduleSlot> readSlots(Connection connection, LocalDateTime changedSince) throws SQLException {
+        String filter = changedSince == null ? "" : "JOIN (" + CHANGED_ACTIVITIES + ") changed ON changed.id = ";
+        String activitiesSql = """
+                SELECT a.id, a.name, a.start_time, a.end_time,
+                       e.id AS event_id, e.title, e.start_date, e.end_date,
+                       m.id AS moderator_id, m.full_name AS moderator_name
+                FROM activities a
+                JOIN events e ON a.event_id = e.id
+                LEFT JOIN conference_users m ON a.moderator_id = m.id
+                """ + (filter.isEmpty() ? "" : filter + "a.id\n") + """
+                ORDER BY a.start_time, a.id
                 """;
+        String jurySql = """
+                SELECT aj.activity_id, u.id, u.full_name
+                FROM activity_jury aj
+                JOIN conference_users u ON aj.user_id = u.id
+                """ + (filter.isEmpty() ? "" : filter + "aj.activity_id\n");
+
+        Map<Long, List<ScheduleSlot.Assignee>> jury = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(jurySql)) {
+            bindChangedSince(statement, changedSince);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    jury.computeIfAbsent(rs.getLong("activity_id"), id -> new ArrayList<>())
+                            .add(new ScheduleSlot.Assignee(rs.getLong("id"), rs.getString("full_name"), false));
+                }
+            }
+        }
+        List<ScheduleSlot> slots = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(activitiesSql)) {
+            bindChangedSince(statement, changedSince);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    long activityId = rs.getLong("id");
+                    List<ScheduleSlot.Assignee> assignees = new ArrayList<>();
+                    long moderatorId = rs.getLong("moderator_id");
+                    if (!rs.wasNull()) {
+                        assignees.add(new ScheduleSlot.Assignee(moderatorId, rs.getString("moderator_name"), true));
+                    }
+                    assignees.addAll(jury.getOrDefault(activityId, List.of()));
+                    slots.add(new ScheduleSlot(
+                            activityId,
+                            rs.getString("name"),
+                            rs.getLong("event_id"),
+                            rs.getString("title"),
+                            rs.getDate("start_date") != null ? rs.getDate("start_date").toLocalDate() : null,
+                            rs.getDate("end_date") != null ? rs.getDate("end_date").toLocalDate() : null,
+                            rs.getTimestamp("start_time") != null ? rs.getTimestamp("start_time").toLocalDateTime() : null,
+                            rs.getTimestamp("end_time") != null ? rs.getTimestamp("end_time").toLocalDateTime() : null,
+                            assignees));
+                }
+            }
+        }
+        return slots;
+    }
+
+    private static void bindChangedSince(PreparedStatement statement, LocalDateTime changedSince) throws SQLException {
+        if (changedSince == null) {
+            return;
+        }
+        for (int i = 1; i <= CHANGED_ACTIVITIES_PARAMETERS; i++) {
+            statement.setTimestamp(i, Timestamp.valueOf(changedSince));
+        }
+    }
+
+    public List<Event> loadEvents() throws SQLException {
+        String sql = EVENT_FROM + "ORDER BY e.start_date, e.id";
         try (Connection connection = databaseManager.getConnection();
              PreparedStatement statement = connection.prepareStatement(sql);
              ResultSet rs = statement.executeQuery()) {
             List<Event> events = new ArrayList<>();
             while (rs.next()) {
-                Country country = null;
-                long countryId = rs.getLong("country_id");
-                if (!rs.wasNull()) {
-                    country = new Country(countryId, rs.getString("country_name"), rs.getString("iso_code"));
-                }
-                City city = null;
-                long cityId = rs.getLong("city_id");
-                if (!rs.wasNull()) {
-                    city = new City(cityId, rs.getString("city_name"), country);
-                }
-                events.add(new Event(
-                        rs.getLong("id"),
-                        rs.getString("title"),
-                        rs.getString("description"),
-                        rs.getDate("start_date") != null ? rs.getDate("start_date").toLocalDate() : null,
-                        rs.getDate("end_date") != null ? rs.getDate("end_date").toLocalDate() : null,
-                        city,
-                        rs.getString("venue"),
-                        rs.getString("image_path")));
+                events.add(readEvent(rs));
             }
             return events;
         }
     }
 
-    private long count(Connection connection, String sql) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(sql);
-             ResultSet rs = statement.executeQuery()) {
-            if (rs.next()) {
-                return rs.getLong(1);
+    /**
+     * Watermark to remember before a full load, so the next refresh can ask for changes only.
+     */
+    public LocalDateTime changeWatermark() throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            return ChangeTracking.watermark(connection);
+        }
+    }
+
+    /**
+     * Users of every role changed or deleted after {@code watermark}. A user whose role changed appears once, under
+     * the new role; callers remove changed ids from the lists of the other roles.
+     */
+    public ChangeSet<ConferenceUser> loadUsersChangedSince(LocalDateTime watermark) throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            LocalDateTime next = ChangeTracking.watermark(connection);
+            if (ChangeTracking.expired(connection, watermark)) {
+                return ChangeSet.reload(next);
+            }
+            List<ConferenceUser> changed = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(USER_FROM + "WHERE u.updated_at > ?")) {
+                statement.setTimestamp(1, Timestamp.valueOf(watermark));
+                try (ResultSet rs = statement.executeQuery()) {
+                    UserRoster.Builder flyweights = UserRoster.builder();
+                    while (rs.next()) {
+                        changed.add(readUser(rs, flyweights));
+                    }
+                }
+            }
+            Set<Long> deleted = ChangeTracking.deletedSince(connection, ChangeTracking.USERS, watermark);
+            return new ChangeSet<>(changed, deleted, next, false);
+        }
+    }
+
+    public ChangeSet<Event> loadEventsChangedSince(LocalDateTime watermark) throws SQLException {
+        try (Connection connection = databaseManager.getConnection()) {
+            LocalDateTime next = ChangeTracking.watermark(connection);
+            if (ChangeTracking.expired(connection, watermark)) {
+                return ChangeSet.reload(next);
+            }
+            List<Event> changed = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(EVENT_FROM + "WHERE e.updated_at > ?")) {
+                statement.setTimestamp(1, Timestamp.valueOf(watermark));
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        changed.add(readEvent(rs));
+                    }
+                }
             }
-            return 0L;
+            Set<Long> deleted = ChangeTracking.deletedSince(connection, ChangeTracking.EVENTS, watermark);
+            return new ChangeSet<>(changed, deleted, next, false);
+        }
+    }
+
+    private static Event readEvent(ResultSet rs) throws SQLException {
+        Country country = null;
+        long countryId = rs.getLong("country_id");
+        if (!rs.wasNull()) {
+            country = new Country(countryId, rs.getString("country_name"), rs.getString("iso_code"));
+        }
+        City city = null;
+        long cityId = rs.getLong("city_id");
+        if (!rs.wasNull()) {
+            city = new City(cityId, rs.getString("city_name"), country);
         }
+        return new Event(
+                rs.getLong("id"),
+                rs.getString("title"),
+                rs.getString("description"),
+                rs.getDate("start_date") != null ? rs.getDate("start_date").toLocalDate() : null,
+                rs.getDate("end_date") != null ? rs.getDate("end_date").toLocalDate() : null,
+                city,
+                rs.getString("venue"),
+                rs.getString("image_path"));
     }
 }
@@ -0,0 +1,302 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.Activity;
+import com.infosecconference.desktop.model.City;
+import com.infosecconference.desktop.model.ConferenceUser;
+import com.infosecconference.desktop.model.Country;
+import com.infosecconference.desktop.model.DashboardData;
+import com.infosecconference.desktop.model.Event;
+import com.infosecconference.desktop.model.SummarySnapshot;
+import com.infosecconference.desktop.model.UserRoster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Saves the last successfully loaded dashboard to a local binary file so the next start can show it before the
+ * database answers, or when it does not answer at all. Countries, cities, users and events are written once
+ * each and referenced by index, which keeps moderators shared between the schedule and the rosters from being
+ * stored twice.
+ */
+public final class DashboardSnapshotStore {
+    private static final int MAGIC = 0x43534453; // "CSDS"
+    private static final int VERSION = 1;
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final Path file;
+
+    public DashboardSnapshotStore(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the saved dashboard, or {@code null} when there is none or it cannot be read.
+     */
+    public DashboardData load() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            return new Reader(in).read();
+        } catch (NoSuchFileException ex) {
+            return null;
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Не удалось прочитать сохранённую панель " + file + ": " + ex.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Writes the dashboard to a temporary file first and swaps it in, so a crash never leaves a torn snapshot.
+     */
+    public void save(DashboardData data) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            new Writer(out).write(data);
+        }
+        try {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException ex) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static final class Writer {
+        private final DataOutputStream out;
+        private final Map<Country, Integer> countries = new LinkedHashMap<>();
+        private final Map<City, Integer> cities = new LinkedHashMap<>();
+        private final Map<ConferenceUser, Integer> users = new LinkedHashMap<>();
+        private final Map<Event, Integer> events = new HashMap<>();
+        private final List<Event> eventOrder = new ArrayList<>();
+
+        private Writer(DataOutputStream out) {
+            this.out = out;
+        }
+
+        private void write(DashboardData data) throws IOException {
+            // collect the shared entities first so the lists below can refer to them by index
+            data.events().forEach(this::collect);
+            for (Activity activity : data.activities()) {
+                collect(activity.event());
+                collect(activity.moderator());
+            }
+            data.users().values().forEach(list -> list.forEach(this::collect));
+
+            writeDateTime(data.loadedAt());
+            writeSummary(data.summary());
+
+            out.writeInt(countries.size());
+            for (Country country : countries.keySet()) {
+                out.writeLong(country.id());
+                writeString(country.name());
+                writeString(country.isoCode());
+            }
+            out.writeInt(cities.size());
+            for (City city : cities.keySet()) {
+                out.writeLong(city.id());
+                writeString(city.name());
+                out.writeInt(index(countries, city.country()));
+            }
+            out.writeInt(users.size());
+            for (ConferenceUser user : users.keySet()) {
+                out.writeLong(user.id());
+                writeString(user.fullName());
+                writeString(user.email());
+                writeString(user.role());
+                writeDate(user.birthDate());
+                out.writeInt(index(cities, user.city()));
+                writeString(user.organization());
+                writeString(user.phone());
+                writeString(user.photoPath());
+            }
+            out.writeInt(eventOrder.size());
+            for (Event event : eventOrder) {
+                out.writeLong(event.id());
+                writeString(event.title());
+                writeString(event.description());
+                writeDate(event.startDate());
+                writeDate(event.endDate());
+                out.writeInt(index(cities, event.city()));
+                writeString(event.venue());
+                writeString(event.imagePath());
+            }
+
+            out.writeInt(data.events().size());
+            for (Event event : data.events()) {
+                out.writeInt(events.get(event));
+            }
+            out.writeInt(data.activities().size());
+            for (Activity activity : data.activities()) {
+                out.writeLong(activity.id());
+                writeString(activity.name());
+                out.writeInt(activity.event() != null ? events.get(activity.event()) : -1);
+                writeDateTime(activity.startTime());
+                writeDateTime(activity.endTime());
+                out.writeInt(index(users, activity.moderator()));
+                writeString(activity.description());
+                writeString(activity.winnerTeam());
+            }
+            out.writeInt(data.users().size());
+            for (Map.Entry<String, List<ConferenceUser>> roster : data.users().entrySet()) {
+                writeString(roster.getKey());
+                out.writeInt(roster.getValue().size());
+                for (ConferenceUser user : roster.getValue()) {
+                    out.writeInt(users.get(user));
+                }
+            }
+        }
+
+        private void writeSummary(SummarySnapshot summary) throws IOException {
+            out.writeLong(summary.events());
+            out.writeLong(summary.activities());
+            out.writeLong(summary.participants());
+            out.writeLong(summary.moderators());
+            out.writeLong(summary.jury());
+            out.writeLong(summary.organizers());
+            out.writeLong(summary.teams());
+        }
+
+        private void collect(Event event) {
+            if (event != null && !events.containsKey(event)) {
+                events.put(event, eventOrder.size());
+                eventOrder.add(event);
+                collect(event.city());
+            }
+        }
+
+        private void collect(ConferenceUser user) {
+            if (user != null && !users.containsKey(user)) {
+                collect(user.city());
+                users.put(user, users.size());
+            }
+        }
+
+        private void collect(City city) {
+            if (city != null && !cities.containsKey(city)) {
+                if (city.country() != null) {
+                    countries.putIfAbsent(city.country(), countries.size());
+                }
+                cities.put(city, cities.size());
+            }
+        }
+
+        private static <T> int index(Map<T, Integer> indexes, T value) {
+            return value != null ? indexes.get(value) : -1;
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                out.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        private void writeDate(LocalDate date) throws IOException {
+            out.writeLong(date != null ? date.toEpochDay() : NO_VALUE);
+        }
+
+        private void writeDateTime(LocalDateTime dateTime) throws IOException {
+            out.writeLong(dateTime != null ? dateTime.toEpochSecond(ZoneOffset.UTC) : NO_VALUE);
+            out.writeInt(dateTime != null ? dateTime.getNano() : 0);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInputStream in;
+
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        private DashboardData read() throws IOException {
+            LocalDateTime loadedAt = readDateTime();
+            SummarySnapshot summary = new SummarySnapshot(in.readLong(), in.readLong(), in.readLong(),
+                    in.readLong(), in.readLong(), in.readLong(), in.readLong());
+
+            List<Country> countries = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                countries.add(new Country(in.readLong(), readString(), readString()));
+            }
+            List<City> cities = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                cities.add(new City(in.readLong(), readString(), lookup(countries, in.readInt())));
+            }
+            List<ConferenceUser> users = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                users.add(new ConferenceUser(in.readLong(), readString(), readString(), readString(), readDate(),
+                        lookup(cities, in.readInt()), readString(), readString(), readString()));
+            }
+            List<Event> events = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                events.add(new Event(in.readLong(), readString(), readString(), readDate(), readDate(),
+                        lookup(cities, in.readInt()), readString(), readString()));
+            }
+
+            List<Event> eventList = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                eventList.add(events.get(in.readInt()));
+            }
+            List<Activity> activities = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                activities.add(new Activity(in.readLong(), readString(), lookup(events, in.readInt()),
+                        readDateTime(), readDateTime(), lookup(users, in.readInt()), readString(), readString()));
+            }
+            Map<String, List<ConferenceUser>> rosters = new LinkedHashMap<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                String role = readString();
+                UserRoster.Builder roster = UserRoster.builder();
+                for (int j = in.readInt(); j > 0; j--) {
+                    roster.add(users.get(in.readInt()));
+                }
+                rosters.put(role, roster.build());
+            }
+            return new DashboardData(summary, eventList, activities, rosters, loadedAt);
+        }
+
+        private static <T> T lookup(List<T> values, int index) {
+            return index >= 0 ? values.get(index) : null;
+        }
+
+        private String readString() throws IOException {
+            int length = in.readInt();
+            if (length < 0) {
+                return null;
+            }
+            return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+        }
+
+        private LocalDate readDate() throws IOException {
+            long value = in.readLong();
+            return value != NO_VALUE ? LocalDate.ofEpochDay(value) : null;
+        }
+
+        private LocalDateTime readDateTime() throws IOException {
+            long seconds = in.readLong();
+            int nanos = in.readInt();
+            return seconds != NO_VALUE ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads {@code .csv} and {@code .tsv} exports as {@link SheetRow}s, so they go through the same row parsers as the
+ * workbooks. The file is memory-mapped and scanned byte by byte without a decoding reader in between; only field
+ * values are turned into strings. Quoted fields follow RFC 4180. CSV files separated by semicolons, as Excel
+ * writes them in the Russian locale, are recognised from the first line.
+ */
+public final class DelimitedSheetReader {
+    private static final long WINDOW_SIZE = 256L * 1024 * 1024;
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    private DelimitedSheetReader() {
+    }
+
+    public static boolean supports(Path path) {
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".csv") || name.endsWith(".tsv");
+    }
+
+    public static void read(Path path, SQLConsumer<SheetRow> consumer) throws IOException, SQLException {
+        if (!Files.exists(path)) {
+            throw new IOException("Файл не найден: " + path);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            Parser parser = null;
+            // a single mapping is limited to 2 GB, so large files are walked through consecutive windows
+            for (long position = 0; position < size; position += WINDOW_SIZE) {
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                        Math.min(WINDOW_SIZE, size - position));
+                if (parser == null) {
+                    parser = new Parser(detectDelimiter(path, window), consumer);
+                    skipByteOrderMark(window);
+                }
+                parser.feed(window);
+            }
+            if (parser != null) {
+                parser.finish();
+            }
+        }
+    }
+
+    private static byte detectDelimiter(Path path, MappedByteBuffer window) {
+        if (path.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".tsv")) {
+            return '\t';
+        }
+        int commas = 0;
+        int semicolons = 0;
+        boolean quoted = false;
+        for (int i = 0; i < window.limit(); i++) {
+            byte b = window.get(i);
+            if (b == QUOTE) {
+                quoted = !quoted;
+            } else if (!quoted && (b == LF || b == CR)) {
+                break;
+            } else if (!quoted && b == ',') {
+                commas++;
+            } else if (!quoted && b == ';') {
+                semicolons++;
+            }
+        }
+        return semicolons > commas ? (byte) ';' : (byte) ',';
+    }
+
+    private static void skipByteOrderMark(MappedByteBuffer window) {
+        if (window.limit() >= 3
+                && window.get(0) == (byte) 0xEF
+                && window.get(1) == (byte) 0xBB
+                && window.get(2) == (byte) 0xBF) {
+            window.position(3);
+        }
+    }
+
+    /**
+     * Field and record state machine; state survives window boundaries.
+     */
+    private static final class Parser {
+        private final byte delimiter;
+        private final SQLConsumer<SheetRow> consumer;
+        private final List<String> cells = new ArrayList<>();
+        private byte[] field = new byte[256];
+        private int fieldLength;
+        private boolean inQuotes;
+        private boolean quotePending;
+        private boolean afterCarriageReturn;
+        private boolean rowStarted;
+        private int rowNumber;
+
+        private Parser(byte delimiter, SQLConsumer<SheetRow> consumer) {
+            this.delimiter = delimiter;
+            this.consumer = consumer;
+        }
+
+        private void feed(MappedByteBuffer window) throws SQLException {
+            int limit = window.limit();
+            for (int i = window.position(); i < limit; i++) {
+                byte b = window.get(i);
+                if (afterCarriageReturn) {
+                    afterCarriageReturn = false;
+                    if (b == LF) {
+                        continue;
+                    }
+                }
+                if (inQuotes) {
+                    if (quotePending) {
+                        quotePending = false;
+                        if (b == QUOTE) {
+                            append(b);
+                            continue;
+                        }
+                        inQuotes = false;
+                    } else if (b == QUOTE) {
+                        quotePending = true;
+                        continue;
+                    } else {
+                        append(b);
+                        continue;
+                    }
+                }
+                if (b == delimiter) {
+                    endField();
+                } else if (b == LF || b == CR) {
+                    afterCarriageReturn = b == CR;
+                    endRow();
+                } else if (b == QUOTE && fieldLength == 0) {
+                    inQuotes = true;
+                    rowStarted = true;
+                } else {
+                    append(b);
+                }
+            }
+        }
+
+        private void finish() throws SQLException {
+            if (rowStarted || fieldLength > 0 || !cells.isEmpty()) {
+                endRow();
+            }
+        }
+
+        private void append(byte b) {
+            if (fieldLength == field.length) {
+                field = Arrays.copyOf(field, field.length * 2);
+            }
+            field[fieldLength++] = b;
+            rowStarted = true;
+        }
+
+        private void endField() {
+            cells.add(new String(field, 0, fieldLength, StandardCharsets.UTF_8));
+            fieldLength = 0;
+            inQuotes = false;
+            quotePending = false;
+            rowStarted = true;
+        }
+
+        private void endRow() throws SQLException {
+            rowNumber++;
+            if (!rowStarted && fieldLength == 0 && cells.isEmpty()) {
+                return;
+            }
+            endField();
+            consumer.accept(new SheetRow(rowNumber, cells.toArray(new String[0])));
+            cells.clear();
+            rowStarted = false;
+        }
+    }
+}
@@ -3,33 +3,31 @@ package com.infosecconference.desktop.service;
 import com.infosecconference.desktop.config.AppConfiguration;
 import com.infosecconference.desktop.config.BrandingTheme;
 import com.infosecconference.desktop.db.DatabaseManager;
-
-import org.apache.poi.ss.usermodel.DataFormatter;
-import org.apache.poi.ss.usermodel.DateUtil;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
+import com.infosecconference.desktop.service.ImportRows.ActivityRow;
+import com.infosecconference.desktop.service.ImportRows.CityRow;
+import com.infosecconference.desktop.service.ImportRows.CountryRow;
+import com.infosecconference.desktop.service.ImportRows.EventRow;
+import com.infosecconference.desktop.service.ImportRows.UserRow;
+import com.infosecconference.desktop.util.SQLConsumer;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Statement;
-import java.sql.Timestamp;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Imports conference reference data from the Excel workbooks provided in the sessions.
@@ -53,9 +51,16 @@ public class ExcelImportService {
     private static final UserSheetLayout JURY_LAYOUT =
             new UserSheetLayout(0, 2, 3, 4, 5, 7, 6, null, 8, 1);
 
+    private static final List<String> DELIMITED_EXTENSIONS = List.of(".csv", ".tsv");
+    private static final DateTimeFormatter TEXT_DATE = DateTimeFormatter.ofPattern("d.M.uuuu");
+    private static final DateTimeFormatter TEXT_TIME = DateTimeFormatter.ofPattern("H:mm[:ss]");
+    private static final int STAGE_COUNT = 8;
+    private static final int PARSER_THREADS = Math.min(8, Runtime.getRuntime().availableProcessors());
+
     private final AppConfiguration configuration;
     private final DatabaseManager databaseManager;
     private final BrandingTheme theme;
+    private final List<ImportCommitListener> commitListeners = new CopyOnWriteArrayList<>();
 
     public ExcelImportService(AppConfiguration configuration,
                               DatabaseManager databaseManager,
@@ -65,535 +70,584 @@ public class ExcelImportService {
         this.theme = theme;
     }
 
-    public ImportReport importAll() throws IOException, SQLException {
-        ImportReport report = new ImportReport();
-        databaseManager.executeInTransaction(connection -> {
-            Map<Integer, Long> countryIndex = importCountries(connection, report);
-            Map<Integer, Long> cityIndex = importCities(connection, report, countryIndex);
+    /**
+     * Registers a listener fired after the import has committed, e.g. to invalidate cached dashboard queries.
+     */
+    public void addCommitListener(ImportCommitListener listener) {
+        commitListeners.add(listener);
+    }
 
-            Map<String, Long> organizers = importUsers(connection, report, ORGANIZERS_FILE, "ORGANIZER", countryIndex, ORGANIZER_LAYOUT);
-            Map<String, Long> moderators = importUsers(connection, report, MODERATORS_FILE, "MODERATOR", countryIndex, MODERATOR_LAYOUT);
-            Map<String, Long> jury = importUsers(connection, report, JURY_FILE, "JURY", countryIndex, JURY_LAYOUT);
-            Map<String, Long> participants = importUsers(connection, report, PARTICIPANTS_FILE, "PARTICIPANT", countryIndex, PARTICIPANT_LAYOUT);
+    public ImportReport importAll() throws IOException, SQLException {
+        return importAll(ImportOptions.defaults());
+    }
 
-            importEventsAndActivities(connection, report, cityIndex, organizers, moderators, jury, participants);
-            return null;
-        });
-        return report;
+    public ImportReport importAll(ImportOptions options) throws IOException, SQLException {
+        return importAll(options, ImportProgressListener.NONE);
     }
 
-    private Map<Integer, Long> importCountries(Connection connection, ImportReport report) throws IOException, SQLException {
-        Map<Integer, Long> countries = new HashMap<>();
-        try (Workbook workbook = loadWorkbook(configuration.excelRoot().resolve(COUNTRIES_FILE))) {
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-            boolean headerSkipped = false;
-            int index = 1;
-            for (Row row : sheet) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
-                    continue;
-                }
-                String name = formatter.formatCellValue(row.getCell(0)).trim();
-                if (name.isEmpty()) {
-                    continue;
+    /**
+     * Runs the import, reporting progress to {@code listener} on the calling thread after every parsed batch.
+     */
+    public ImportReport importAll(ImportOptions options, ImportProgressListener listener) throws IOException, SQLException {
+        ImportReport report = new ImportReport();
+        Path root = configuration.excelRoot();
+        ImportManifest manifest = databaseManager.executeInTransaction(ImportManifest::load);
+        ImportCheckpoints checkpoints = databaseManager.executeInTransaction(ImportCheckpoints::load);
+        boolean incremental = options.incremental();
+        boolean completed = false;
+        try (ImportPipeline pipeline = new ImportPipeline(PARSER_THREADS)) {
+            // submission order must match the order the writer drains the feeds below
+            ImportPipeline.Feed<CountryRow> countryFeed = pipeline.submit(source(root, COUNTRIES_FILE), true, countryParser(),
+                    previousHash(manifest, checkpoints, COUNTRIES_FILE, incremental));
+            ImportPipeline.Feed<CityRow> cityFeed = pipeline.submit(source(root, CITIES_FILE), false, cityParser(),
+                    previousHash(manifest, checkpoints, CITIES_FILE, incremental));
+            ImportPipeline.Feed<UserRow> organizerFeed = pipeline.submit(source(root, ORGANIZERS_FILE), true,
+                    row -> parseUser(row, "ORGANIZER", ORGANIZER_LAYOUT), previousHash(manifest, checkpoints, ORGANIZERS_FILE, incremental));
+            ImportPipeline.Feed<UserRow> moderatorFeed = pipeline.submit(source(root, MODERATORS_FILE), true,
+                    row -> parseUser(row, "MODERATOR", MODERATOR_LAYOUT), previousHash(manifest, checkpoints, MODERATORS_FILE, incremental));
+            ImportPipeline.Feed<UserRow> juryFeed = pipeline.submit(source(root, JURY_FILE), true,
+                    row -> parseUser(row, "JURY", JURY_LAYOUT), previousHash(manifest, checkpoints, JURY_FILE, incremental));
+            ImportPipeline.Feed<UserRow> participantFeed = pipeline.submit(source(root, PARTICIPANTS_FILE), true,
+                    row -> parseUser(row, "PARTICIPANT", PARTICIPANT_LAYOUT), previousHash(manifest, checkpoints, PARTICIPANTS_FILE, incremental));
+            ImportPipeline.Feed<EventRow> eventFeed = pipeline.submit(source(root, EVENTS_FILE), true, this::parseEvent,
+                    previousHash(manifest, checkpoints, EVENTS_FILE, incremental));
+            ImportPipeline.Feed<ActivityRow> activityFeed = pipeline.submit(source(root, ACTIVITIES_FILE), true, activityParser(),
+                    previousHash(manifest, checkpoints, ACTIVITIES_FILE, incremental));
+
+            databaseManager.executeInTransaction(connection -> {
+                try (ImportSession session = new ImportSession(connection)) {
+                    ImportContext context = ImportContext.load(session);
+                    ImportMeter meter = new ImportMeter(report, session, listener, STAGE_COUNT);
+                    ImportCheckpoints.Run run = checkpoints.start(session, report, options.commitEvery());
+                    meter.begin(COUNTRIES_FILE);
+                    ImportManifest.Stage countryStage = beginStage(session, manifest, checkpoints, COUNTRIES_FILE, incremental);
+                    Map<Integer, Long> countryIndex = importCountries(session, context, meter, run, report, countryFeed, countryStage);
+                    boolean countriesChanged = changed(countryStage, checkpoints);
+
+                    meter.begin(CITIES_FILE);
+                    ImportManifest.Stage cityStage = beginStage(session, manifest, checkpoints, CITIES_FILE, incremental);
+                    Map<Integer, Long> cityIndex = importCities(session, context, meter, run, report, cityFeed, cityStage, countriesChanged, countryIndex);
+
+                    meter.begin(ORGANIZERS_FILE);
+                    ImportManifest.Stage organizerStage = beginStage(session, manifest, checkpoints, ORGANIZERS_FILE, incremental);
+                    Map<String, Long> organizers = importUsers(session, context, meter, run, report, organizerFeed, organizerStage, countriesChanged, "ORGANIZER", countryIndex);
+                    meter.begin(MODERATORS_FILE);
+                    ImportManifest.Stage moderatorStage = beginStage(session, manifest, checkpoints, MODERATORS_FILE, incremental);
+                    Map<String, Long> moderators = importUsers(session, context, meter, run, report, moderatorFeed, moderatorStage, countriesChanged, "MODERATOR", countryIndex);
+                    meter.begin(JURY_FILE);
+                    ImportManifest.Stage juryStage = beginStage(session, manifest, checkpoints, JURY_FILE, incremental);
+                    Map<String, Long> jury = importUsers(session, context, meter, run, report, juryFeed, juryStage, countriesChanged, "JURY", countryIndex);
+                    meter.begin(PARTICIPANTS_FILE);
+                    ImportManifest.Stage participantStage = beginStage(session, manifest, checkpoints, PARTICIPANTS_FILE, incremental);
+                    Map<String, Long> participants = importUsers(session, context, meter, run, report, participantFeed, participantStage, countriesChanged, "PARTICIPANT", countryIndex);
+
+                    meter.begin(EVENTS_FILE);
+                    ImportManifest.Stage eventStage = beginStage(session, manifest, checkpoints, EVENTS_FILE, incremental);
+                    boolean eventInputsChanged = changed(cityStage, checkpoints) || changed(organizerStage, checkpoints);
+                    Map<String, Long> events = importEvents(session, context, meter, run, report, eventFeed, eventStage, eventInputsChanged, cityIndex, organizers);
+
+                    meter.begin(ACTIVITIES_FILE);
+                    ImportManifest.Stage activityStage = beginStage(session, manifest, checkpoints, ACTIVITIES_FILE, incremental);
+                    boolean activityInputsChanged = changed(eventStage, checkpoints)
+                            || changed(moderatorStage, checkpoints)
+                            || changed(juryStage, checkpoints)
+                            || changed(participantStage, checkpoints);
+                    importActivities(session, context, meter, run, report, activityFeed, activityStage, activityInputsChanged, events, moderators, jury, participants);
+                    run.finish();
+                    if (changed(organizerStage, checkpoints) || changed(moderatorStage, checkpoints)
+                            || changed(juryStage, checkpoints) || changed(participantStage, checkpoints)
+                            || changed(eventStage, checkpoints) || changed(activityStage, checkpoints)) {
+                        // user upserts may move a person between roles, so the counters are recounted, not adjusted;
+                        // last, so recomputed_at is not older than the stamps run.finish() moves to commit time
+                        SummaryCounters.recompute(session.connection());
+                    }
+                    report.recordStatements(session.preparedStatements(), session.executedStatements(), session.executedBatches());
+                } catch (IOException ex) {
+                    // Surface read failures as SQL errors so executeInTransaction rolls the partial import back.
+                    throw new SQLException("Ошибка чтения файла импорта: " + ex.getMessage(), ex);
                 }
-                String iso = formatter.formatCellValue(row.getCell(2)).trim();
-                long id = upsertCountry(connection, name, iso.isEmpty() ? null : iso);
-                countries.put(index, id);
-                index++;
+                return null;
+            });
+            completed = true;
+        } finally {
+            // chunked imports leave committed rows behind even when they fail
+            if (completed || options.commitEvery() > 0) {
+                fireCommitted(report);
             }
-            report.addCountries(countries.size());
         }
-        return countries;
+        return report;
     }
 
-    private Map<Integer, Long> importCities(Connection connection,
-                                            ImportReport report,
-                                            Map<Integer, Long> countriesByIndex) throws IOException, SQLException {
-        Map<Integer, Long> cities = new HashMap<>();
-        try (Workbook workbook = loadWorkbook(configuration.excelRoot().resolve(CITIES_FILE))) {
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-            for (Row row : sheet) {
-                String idValue = formatter.formatCellValue(row.getCell(0)).trim();
-                String cityName = formatter.formatCellValue(row.getCell(2)).trim();
-                if (cityName.isEmpty()) {
-                    continue;
-                }
-                int index = parseIntSafe(idValue, cities.size() + 1);
-                Long countryId = countriesByIndex.get(index);
-                long cityId = upsertCity(connection, cityName, countryId);
-                cities.put(index, cityId);
-            }
-            report.addCities(cities.size());
+    private void fireCommitted(ImportReport report) {
+        for (ImportCommitListener commitListener : commitListeners) {
+            commitListener.importCommitted(report);
         }
-        return cities;
     }
 
-    private Map<String, Long> importUsers(Connection connection,
-                                          ImportReport report,
-                                          String fileName,
-                                          String role,
-                                          Map<Integer, Long> countriesByIndex,
-                                          UserSheetLayout layout) throws IOException, SQLException {
-        Path file = configuration.excelRoot().resolve(fileName);
-        Map<String, Long> users = new HashMap<>();
-        try (Workbook workbook = loadWorkbook(file)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-            boolean headerSkipped = false;
-            for (Row row : sheet) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
-                    continue;
-                }
-                String fullName = formatter.formatCellValue(row.getCell(layout.fullNameIndex())).trim();
-                if (fullName.isEmpty()) {
-                    continue;
-                }
-                String email = formatter.formatCellValue(row.getCell(layout.emailIndex())).trim();
-                if (email.isEmpty()) {
-                    email = generateEmail(fullName);
-                }
-                String birthValue = formatter.formatCellValue(row.getCell(layout.birthDateIndex())).trim();
-                String countryRef = formatter.formatCellValue(row.getCell(layout.countryIndex())).trim();
-                String phone = formatter.formatCellValue(row.getCell(layout.phoneIndex())).trim();
-                String password = formatter.formatCellValue(row.getCell(layout.passwordIndex())).trim();
-                String photo = formatter.formatCellValue(row.getCell(layout.photoIndex())).trim();
-                String specialization = layout.specializationIndex() != null
-                        ? formatter.formatCellValue(row.getCell(layout.specializationIndex())).trim() : null;
-                String eventTitle = layout.eventIndex() != null
-                        ? formatter.formatCellValue(row.getCell(layout.eventIndex())).trim() : null;
-                String gender = layout.genderIndex() != null
-                        ? formatter.formatCellValue(row.getCell(layout.genderIndex())).trim() : null;
-
-                Long countryId = parseCountryReference(countryRef, countriesByIndex);
-                Long cityId = null; // city is derived later via manual mapping
-                LocalDate birthDate = parseExcelDate(birthValue);
-
-                String organization = resolveOrganization(role, specialization, eventTitle);
-                String bio = buildBio(role, specialization, gender, password);
-                String photoPath = buildPhotoPath(role, photo);
-
-                long userId = upsertUser(connection, fullName, email, role, birthDate, cityId, organization, phone, bio, photoPath, countryId);
-                users.put(normalizeName(fullName), userId);
+    /**
+     * Prefers a {@code .csv} or {@code .tsv} export lying next to the workbook: it is read through a memory
+     * mapping, which is several times faster than unpacking and parsing the XLSX XML. Columns must follow the
+     * workbook layout.
+     */
+    private Path source(Path root, String workbook) {
+        String base = workbook.substring(0, workbook.lastIndexOf('.'));
+        for (String extension : DELIMITED_EXTENSIONS) {
+            Path export = root.resolve(base + extension);
+            if (Files.isRegularFile(export)) {
+                return export;
             }
         }
+        return root.resolve(workbook);
+    }
 
-        switch (role) {
-            case "ORGANIZER" -> report.addOrganizers(users.size());
-            case "MODERATOR" -> report.addModerators(users.size());
-            case "JURY" -> report.addJury(users.size());
-            case "PARTICIPANT" -> report.addParticipants(users.size());
-            default -> {
-            }
+    /**
+     * Hash under which the workbook counts as already imported: the manifest's in incremental mode, and in any
+     * mode the one an interrupted chunked import finished the workbook with.
+     */
+    private String previousHash(ImportManifest manifest, ImportCheckpoints checkpoints, String source, boolean incremental) {
+        String completed = checkpoints.completedHash(source);
+        if (completed != null) {
+            return completed;
         }
-        return users;
+        return incremental ? manifest.fileHash(source) : null;
     }
 
-    private void importEventsAndActivities(Connection connection,
-                                           ImportReport report,
-                                           Map<Integer, Long> citiesByIndex,
-                                           Map<String, Long> organizers,
-                                           Map<String, Long> moderators,
-                                           Map<String, Long> jury,
-                                           Map<String, Long> participants) throws IOException, SQLException {
-        Map<String, Long> eventsByTitle = new HashMap<>();
-        try (Workbook workbook = loadWorkbook(configuration.excelRoot().resolve(EVENTS_FILE))) {
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-            boolean headerSkipped = false;
-            for (Row row : sheet) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
-                    continue;
-                }
-                String title = formatter.formatCellValue(row.getCell(1)).trim();
-                if (title.isEmpty()) {
-                    continue;
-                }
-                String startValue = formatter.formatCellValue(row.getCell(2)).trim();
-                String durationValue = formatter.formatCellValue(row.getCell(3)).trim();
-                String cityRef = formatter.formatCellValue(row.getCell(4)).trim();
-
-                LocalDate startDate = parseExcelDate(startValue);
-                long days = parseLongSafe(durationValue, 1);
-                LocalDate endDate = startDate != null ? startDate.plusDays(Math.max(0, days - 1)) : null;
-                Long cityId = parseCityReference(cityRef, citiesByIndex);
-
-                String imagePath = "events/" + normalizeFileName(title) + ".jpg";
-                long eventId = upsertEvent(connection, title, startDate, endDate, cityId, imagePath);
-                eventsByTitle.put(title.toLowerCase(Locale.ROOT), eventId);
-                upsertEventOrganizers(connection, eventId, organizers);
-            }
-            report.addEvents(eventsByTitle.size());
-        }
-
-        try (Workbook workbook = loadWorkbook(configuration.excelRoot().resolve(ACTIVITIES_FILE))) {
-            Sheet sheet = workbook.getSheetAt(0);
-            DataFormatter formatter = new DataFormatter();
-            boolean headerSkipped = false;
-            Long currentEventId = null;
-            for (Row row : sheet) {
-                if (!headerSkipped) {
-                    headerSkipped = true;
-                    continue;
-                }
-                String eventTitle = formatter.formatCellValue(row.getCell(1)).trim();
-                if (!eventTitle.isEmpty()) {
-                    currentEventId = eventsByTitle.get(eventTitle.toLowerCase(Locale.ROOT));
-                }
-                String activityTitle = formatter.formatCellValue(row.getCell(4)).trim();
-                if (activityTitle.isEmpty()) {
-                    continue;
-                }
-                long activityId = upsertActivity(connection, currentEventId, activityTitle);
-                String dayValue = formatter.formatCellValue(row.getCell(5)).trim();
-                String startValue = formatter.formatCellValue(row.getCell(6)).trim();
-                LocalDateTime start = buildDateTime(connection, currentEventId, dayValue, startValue);
-                LocalDateTime end = start != null ? start.plusHours(1) : null;
-                updateActivitySchedule(connection, activityId, start, end);
-
-                String moderatorName = formatter.formatCellValue(row.getCell(7)).trim();
-                Long moderatorId = moderators.get(normalizeName(moderatorName));
-                if (moderatorId != null) {
-                    assignModerator(connection, activityId, moderatorId);
-                }
+    /**
+     * A workbook finished by an interrupted import is skipped in any mode, so its rows must be loaded for the ids.
+     */
+    private ImportManifest.Stage beginStage(ImportSession session, ImportManifest manifest, ImportCheckpoints checkpoints,
+                                            String source, boolean incremental) throws SQLException {
+        return manifest.begin(session, source, incremental || checkpoints.completedHash(source) != null);
+    }
 
-                List<Long> juryMembers = new ArrayList<>();
-                for (int i = 8; i <= 12; i++) {
-                    String juryName = formatter.formatCellValue(row.getCell(i)).trim();
-                    if (!juryName.isEmpty()) {
-                        Long juryId = jury.get(normalizeName(juryName));
-                        if (juryId != null) {
-                            juryMembers.add(juryId);
-                        }
-                    }
-                }
-                assignJury(connection, activityId, juryMembers);
-
-                String winnerName = formatter.formatCellValue(row.getCell(13)).trim();
-                if (!winnerName.isEmpty()) {
-                    Long winnerId = participants.get(normalizeName(winnerName));
-                    if (winnerId != null) {
-                        createWinnerTeam(connection, activityId, winnerName, winnerId);
-                        report.addTeams(1);
-                    }
-                }
-                report.addActivities(1);
-            }
-        }
+    private boolean changed(ImportManifest.Stage stage, ImportCheckpoints checkpoints) {
+        return stage.writtenRows() > 0 || checkpoints.touched(stage.source());
     }
 
-    private Workbook loadWorkbook(Path path) throws IOException {
-        if (!Files.exists(path)) {
-            throw new IOException("Файл не найден: " + path);
+    /**
+     * Drains the feed and reports whether rows were read. An unchanged workbook is parsed after all when one of
+     * the workbooks it references was written, because the ids it resolves to may have changed.
+     */
+    private <T> boolean drainChanged(ImportMeter meter,
+                                     ImportCheckpoints.Run run,
+                                     ImportManifest.Stage stage,
+                                     BulkUpsertWriter writer,
+                                     ImportPipeline.Feed<T> feed,
+                                     boolean upstreamChanged,
+                                     SQLConsumer<T> consumer) throws IOException, SQLException {
+        feed.drain(meter.counting(run.tracking(stage, writer, feed, consumer)));
+        meter.feedRead(feed);
+        if (!feed.unchanged()) {
+            return true;
         }
-        try (InputStream stream = Files.newInputStream(path)) {
-            return WorkbookFactory.create(stream);
+        if (!upstreamChanged) {
+            return false;
         }
+        ImportPipeline.Feed<T> reparsed = feed.reparse();
+        reparsed.drain(meter.counting(run.tracking(stage, writer, reparsed, consumer)));
+        meter.feedRead(reparsed);
+        return true;
     }
 
-    private long upsertCountry(Connection connection, String name, String isoCode) throws SQLException {
-        Long existingId = findId(connection, "SELECT id FROM countries WHERE LOWER(name) = LOWER(?)", name);
-        if (existingId != null) {
-            try (PreparedStatement statement = connection.prepareStatement("UPDATE countries SET iso_code = ? WHERE id = ?")) {
-                statement.setString(1, isoCode);
-                statement.setLong(2, existingId);
-                statement.executeUpdate();
-            }
-            return existingId;
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO countries(name, iso_code) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, name);
-            statement.setString(2, isoCode);
-            statement.executeUpdate();
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
-            }
+    private void completeStage(ImportMeter meter, ImportCheckpoints.Run run, ImportReport report,
+                               ImportManifest.Stage stage, ImportPipeline.Feed<?> feed, boolean parsed) throws SQLException {
+        stage.complete(feed.fileHash());
+        run.stageCompleted(stage, feed);
+        report.addUnchangedRows(stage.skippedRows());
+        if (!parsed) {
+            report.skipWorkbook(stage.source());
         }
-        throw new SQLException("Не удалось создать страну " + name);
+        meter.end();
     }
 
-    private long upsertCity(Connection connection, String name, Long countryId) throws SQLException {
-        Long existingId = findId(connection, "SELECT id FROM cities WHERE LOWER(name) = LOWER(?)", name);
-        if (existingId != null) {
-            try (PreparedStatement statement = connection.prepareStatement("UPDATE cities SET country_id = ? WHERE id = ?")) {
-                if (countryId != null) {
-                    statement.setLong(1, countryId);
-                } else {
-                    statement.setNull(1, java.sql.Types.BIGINT);
-                }
-                statement.setLong(2, existingId);
-                statement.executeUpdate();
-            }
-            return existingId;
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO cities(name, country_id) VALUES (?, ?)", Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, name);
-            if (countryId != null) {
-                statement.setLong(2, countryId);
-            } else {
-                statement.setNull(2, java.sql.Types.BIGINT);
+    private ImportPipeline.RowParser<CountryRow> countryParser() {
+        int[] nextIndex = {1};
+        return row -> {
+            String name = row.cell(0);
+            if (name.isEmpty()) {
+                return null;
             }
-            statement.executeUpdate();
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
+            String iso = row.cell(2);
+            return new CountryRow(nextIndex[0]++, name, iso.isEmpty() ? null : iso);
+        };
+    }
+
+    private ImportPipeline.RowParser<CityRow> cityParser() {
+        int[] rowsSeen = {0};
+        return row -> {
+            String cityName = row.cell(2);
+            if (cityName.isEmpty()) {
+                return null;
             }
+            return new CityRow(parseIntSafe(row.cell(0), ++rowsSeen[0]), cityName);
+        };
+    }
+
+    private UserRow parseUser(SheetRow row, String role, UserSheetLayout layout) {
+        String fullName = row.cell(layout.fullNameIndex());
+        if (fullName.isEmpty()) {
+            return null;
         }
-        throw new SQLException("Не удалось создать город " + name);
-    }
-
-    private long upsertUser(Connection connection,
-                             String fullName,
-                             String email,
-                             String role,
-                             LocalDate birthDate,
-                             Long cityId,
-                             String organization,
-                             String phone,
-                             String bio,
-                             String photoPath,
-                             Long countryId) throws SQLException {
-        Long existingId = findId(connection, "SELECT id FROM conference_users WHERE LOWER(email) = LOWER(?)", email);
-        if (existingId != null) {
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "UPDATE conference_users SET full_name = ?, role = ?, birth_date = ?, city_id = ?, organization = ?, phone = ?, bio = ?, photo_path = ?, country_id = ? WHERE id = ?")) {
-                statement.setString(1, fullName);
-                statement.setString(2, role);
-                setDate(statement, 3, birthDate);
-                setLong(statement, 4, cityId);
-                statement.setString(5, organization);
-                statement.setString(6, phone);
-                statement.setString(7, bio);
-                statement.setString(8, photoPath);
-                setLong(statement, 9, countryId);
-                statement.setLong(10, existingId);
-                statement.executeUpdate();
-            }
-            return existingId;
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO conference_users(full_name, email, role, birth_date, city_id, organization, phone, bio, photo_path, country_id) VALUES (?,?,?,?,?,?,?,?,?,?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, fullName);
-            statement.setString(2, email);
-            statement.setString(3, role);
-            setDate(statement, 4, birthDate);
-            setLong(statement, 5, cityId);
-            statement.setString(6, organization);
-            statement.setString(7, phone);
-            statement.setString(8, bio);
-            statement.setString(9, photoPath);
-            setLong(statement, 10, countryId);
-            statement.executeUpdate();
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
-            }
+        String email = row.cell(layout.emailIndex());
+        if (email.isEmpty()) {
+            email = generateEmail(fullName);
+        }
+        String birthValue = row.cell(layout.birthDateIndex());
+        String countryRef = row.cell(layout.countryIndex());
+        String phone = row.cell(layout.phoneIndex());
+        String password = row.cell(layout.passwordIndex());
+        String photo = row.cell(layout.photoIndex());
+        String specialization = layout.specializationIndex() != null
+                ? row.cell(layout.specializationIndex()) : null;
+        String eventTitle = layout.eventIndex() != null
+                ? row.cell(layout.eventIndex()) : null;
+        String gender = layout.genderIndex() != null
+                ? row.cell(layout.genderIndex()) : null;
+
+        LocalDate birthDate = parseExcelDate(birthValue);
+        String organization = resolveOrganization(role, specialization, eventTitle);
+        String bio = buildBio(role, specialization, gender, password);
+        String photoPath = buildPhotoPath(role, photo);
+        return new UserRow(fullName, email, role, birthDate, countryRef, organization, phone, bio, photoPath);
+    }
+
+    private EventRow parseEvent(SheetRow row) {
+        String title = row.cell(1);
+        if (title.isEmpty()) {
+            return null;
         }
-        throw new SQLException("Не удалось создать пользователя " + fullName);
-    }
-
-    private long upsertEvent(Connection connection,
-                              String title,
-                              LocalDate startDate,
-                              LocalDate endDate,
-                              Long cityId,
-                              String imagePath) throws SQLException {
-        Long existingId = findId(connection, "SELECT id FROM events WHERE LOWER(title) = LOWER(?)", title);
-        if (existingId != null) {
-            try (PreparedStatement statement = connection.prepareStatement(
-                    "UPDATE events SET start_date = ?, end_date = ?, city_id = ?, venue = ?, image_path = ?, brand_color = ? WHERE id = ?")) {
-                setDate(statement, 1, startDate);
-                setDate(statement, 2, endDate);
-                setLong(statement, 3, cityId);
-                statement.setString(4, cityId != null ? "Главная площадка" : "Онлайн");
-                statement.setString(5, imagePath);
-                statement.setString(6, colorToHex(theme.primaryColor()));
-                statement.setLong(7, existingId);
-                statement.executeUpdate();
+        LocalDate startDate = parseExcelDate(row.cell(2));
+        long days = parseLongSafe(row.cell(3), 1);
+        String imagePath = "events/" + normalizeFileName(title) + ".jpg";
+        return new EventRow(title, startDate, days, row.cell(4), imagePath);
+    }
+
+    private ImportPipeline.RowParser<ActivityRow> activityParser() {
+        // activity rows leave the event column empty until the next event starts
+        String[] currentEvent = {null};
+        return row -> {
+            String eventTitle = row.cell(1);
+            if (!eventTitle.isEmpty()) {
+                currentEvent[0] = eventTitle;
+            }
+            String activityTitle = row.cell(4);
+            if (activityTitle.isEmpty()) {
+                return null;
             }
-            return existingId;
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO events(title, description, start_date, end_date, city_id, venue, image_path, brand_color) VALUES (?,?,?,?,?,?,?,?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, title);
-            statement.setString(2, "Программа конференции «" + title + "»." );
-            setDate(statement, 3, startDate);
-            setDate(statement, 4, endDate);
-            setLong(statement, 5, cityId);
-            statement.setString(6, cityId != null ? "Главная площадка" : "Онлайн");
-            statement.setString(7, imagePath);
-            statement.setString(8, colorToHex(theme.primaryColor()));
-            statement.executeUpdate();
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
+            List<String> juryNames = new ArrayList<>();
+            for (int i = 8; i <= 12; i++) {
+                String juryName = row.cell(i);
+                if (!juryName.isEmpty()) {
+                    juryNames.add(juryName);
                 }
             }
-        }
-        throw new SQLException("Не удалось создать мероприятие " + title);
+            return new ActivityRow(currentEvent[0],
+                    activityTitle,
+                    parseLongSafe(row.cell(5), 1),
+                    parseExcelTime(row.cell(6)),
+                    row.cell(7),
+                    juryNames,
+                    row.cell(13));
+        };
     }
 
-    private void upsertEventOrganizers(Connection connection, long eventId, Map<String, Long> organizers) throws SQLException {
-        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM event_organizers WHERE event_id = ?")) {
-            delete.setLong(1, eventId);
-            delete.executeUpdate();
-        }
-        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO event_organizers(event_id, user_id) VALUES (?, ?)");) {
-            int count = 0;
-            for (Long organizerId : organizers.values()) {
-                insert.setLong(1, eventId);
-                insert.setLong(2, organizerId);
-                insert.addBatch();
-                count++;
-                if (count >= 3) {
-                    break;
-                }
+    private Map<Integer, Long> importCountries(ImportSession session,
+                                               ImportContext context,
+                                               ImportMeter meter,
+                                               ImportCheckpoints.Run run,
+                                               ImportReport report,
+                                               ImportPipeline.Feed<CountryRow> feed,
+                                               ImportManifest.Stage stage) throws IOException, SQLException {
+        Map<Integer, Long> countries = new HashMap<>();
+        BulkUpsertWriter writer = new BulkUpsertWriter(session, "countries",
+                List.of("name", "iso_code"), List.of("name"),
+                List.of(BulkUpsertWriter.values("iso_code")), true, BulkUpsertWriter.DEFAULT_BATCH_SIZE, context.countries());
+        boolean parsed = drainChanged(meter, run, stage, writer, feed, false, row -> {
+            List<Object> values = Arrays.asList(row.name(), row.isoCode());
+            String key = normalizeName(row.name());
+            String ref = String.valueOf(row.index());
+            String hash = ImportManifest.fingerprint(values);
+            Long unchangedId = stage.unchangedId(key, ref, hash);
+            if (unchangedId != null) {
+                countries.put(row.index(), unchangedId);
+                return;
             }
-            insert.executeBatch();
+            writer.add(values, id -> {
+                countries.put(row.index(), id);
+                stage.record(key, ref, hash, id);
+            });
+        });
+        if (!parsed) {
+            stage.references().forEach((ref, id) -> countries.put(Integer.valueOf(ref), id));
         }
+        writer.flush();
+        completeStage(meter, run, report, stage, feed, parsed);
+        report.addCountries(countries.size());
+        return countries;
     }
 
-    private long upsertActivity(Connection connection, Long eventId, String title) throws SQLException {
-        if (eventId == null) {
-            throw new SQLException("Активность " + title + " не привязана к мероприятию. Убедитесь, что лист мероприятий импортирован.");
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "SELECT id FROM activities WHERE event_id = ? AND LOWER(name) = LOWER(?)")) {
-            statement.setLong(1, eventId);
-            statement.setString(2, title);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
-                }
-            }
-        }
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO activities(event_id, name, description) VALUES (?,?,?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setLong(1, eventId);
-            statement.setString(2, title);
-            statement.setString(3, "Активность в рамках конференции");
-            statement.executeUpdate();
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (keys.next()) {
-                    return keys.getLong(1);
-                }
+    private Map<Integer, Long> importCities(ImportSession session,
+                                            ImportContext context,
+                                            ImportMeter meter,
+                                            ImportCheckpoints.Run run,
+                                            ImportReport report,
+                                            ImportPipeline.Feed<CityRow> feed,
+                                            ImportManifest.Stage stage,
+                                            boolean upstreamChanged,
+                                            Map<Integer, Long> countriesByIndex) throws IOException, SQLException {
+        Map<Integer, Long> cities = new HashMap<>();
+        BulkUpsertWriter writer = new BulkUpsertWriter(session, "cities",
+                List.of("name", "country_id"), List.of("name"),
+                List.of(BulkUpsertWriter.values("country_id")), true, BulkUpsertWriter.DEFAULT_BATCH_SIZE, context.cities());
+        boolean parsed = drainChanged(meter, run, stage, writer, feed, upstreamChanged, row -> {
+            Long countryId = countriesByIndex.get(row.index());
+            List<Object> values = Arrays.asList(row.name(), countryId);
+            String key = normalizeName(row.name());
+            String ref = String.valueOf(row.index());
+            String hash = ImportManifest.fingerprint(values);
+            Long unchangedId = stage.unchangedId(key, ref, hash);
+            if (unchangedId != null) {
+                cities.put(row.index(), unchangedId);
+                return;
             }
+            writer.add(values, id -> {
+                cities.put(row.index(), id);
+                stage.record(key, ref, hash, id);
+            });
+        });
+        if (!parsed) {
+            stage.references().forEach((ref, id) -> cities.put(Integer.valueOf(ref), id));
         }
-        throw new SQLException("Не удалось создать активность " + title);
+        writer.flush();
+        completeStage(meter, run, report, stage, feed, parsed);
+        report.addCities(cities.size());
+        return cities;
     }
 
-    private void updateActivitySchedule(Connection connection, long activityId, LocalDateTime start, LocalDateTime end) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "UPDATE activities SET start_time = ?, end_time = ? WHERE id = ?")) {
-            setTimestamp(statement, 1, start);
-            setTimestamp(statement, 2, end);
-            statement.setLong(3, activityId);
-            statement.executeUpdate();
+    private Map<String, Long> importUsers(ImportSession session,
+                                          ImportContext context,
+                                          ImportMeter meter,
+                                          ImportCheckpoints.Run run,
+                                          ImportReport report,
+                                          ImportPipeline.Feed<UserRow> feed,
+                                          ImportManifest.Stage stage,
+                                          boolean upstreamChanged,
+                                          String role,
+                                          Map<Integer, Long> countriesByIndex) throws IOException, SQLException {
+        Map<String, Long> users = new HashMap<>();
+        BulkUpsertWriter writer = new BulkUpsertWriter(session, "conference_users",
+                List.of("full_name", "email", "role", "birth_date", "city_id", "organization", "phone", "bio", "photo_path", "country_id"),
+                List.of("email"),
+                List.of(BulkUpsertWriter.values("full_name"),
+                        BulkUpsertWriter.values("role"),
+                        BulkUpsertWriter.values("birth_date"),
+                        BulkUpsertWriter.values("city_id"),
+                        BulkUpsertWriter.values("organization"),
+                        BulkUpsertWriter.values("phone"),
+                        BulkUpsertWriter.values("bio"),
+                        BulkUpsertWriter.values("photo_path"),
+                        BulkUpsertWriter.values("country_id")),
+                true, BulkUpsertWriter.DEFAULT_BATCH_SIZE, context.users());
+        boolean parsed = drainChanged(meter, run, stage, writer, feed, upstreamChanged, row -> {
+            Long countryId = parseCountryReference(row.countryRef(), countriesByIndex);
+            Long cityId = null; // city is derived later via manual mapping
+            List<Object> values = Arrays.asList(row.fullName(), row.email(), row.role(), row.birthDate(), cityId,
+                    row.organization(), row.phone(), row.bio(), row.photoPath(), countryId);
+            String key = normalizeName(row.email());
+            String ref = normalizeName(row.fullName());
+            String hash = ImportManifest.fingerprint(values);
+            Long unchangedId = stage.unchangedId(key, ref, hash);
+            if (unchangedId != null) {
+                users.put(ref, unchangedId);
+                return;
+            }
+            writer.add(values, id -> {
+                users.put(ref, id);
+                stage.record(key, ref, hash, id);
+            });
+        });
+        if (!parsed) {
+            users.putAll(stage.references());
         }
-    }
+        writer.flush();
+        completeStage(meter, run, report, stage, feed, parsed);
 
-    private void assignModerator(Connection connection, long activityId, long moderatorId) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "UPDATE activities SET moderator_id = ? WHERE id = ?")) {
-            statement.setLong(1, moderatorId);
-            statement.setLong(2, activityId);
-            statement.executeUpdate();
+        switch (role) {
+            case "ORGANIZER" -> report.addOrganizers(users.size());
+            case "MODERATOR" -> report.addModerators(users.size());
+            case "JURY" -> report.addJury(users.size());
+            case "PARTICIPANT" -> report.addParticipants(users.size());
+            default -> {
+            }
         }
+        return users;
     }
 
-    private void assignJury(Connection connection, long activityId, List<Long> juryMembers) throws SQLException {
-        try (PreparedStatement delete = connection.prepareStatement("DELETE FROM activity_jury WHERE activity_id = ?")) {
-            delete.setLong(1, activityId);
-            delete.executeUpdate();
-        }
-        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO activity_jury(activity_id, user_id) VALUES (?, ?)");) {
-            for (Long juryId : juryMembers) {
-                insert.setLong(1, activityId);
-                insert.setLong(2, juryId);
-                insert.addBatch();
-            }
-            insert.executeBatch();
-        }
-    }
-
-    private void createWinnerTeam(Connection connection, long activityId, String teamName, long winnerId) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(
-                "INSERT INTO teams(name, track, score) VALUES (?,?,?)",
-                Statement.RETURN_GENERATED_KEYS)) {
-            statement.setString(1, teamName + " — победители");
-            statement.setString(2, "CyberShield Challenge");
-            statement.setInt(3, 100);
-            statement.executeUpdate();
-            long teamId;
-            try (ResultSet keys = statement.getGeneratedKeys()) {
-                if (!keys.next()) {
-                    throw new SQLException("Не удалось получить идентификатор команды");
-                }
-                teamId = keys.getLong(1);
+    private Map<String, Long> importEvents(ImportSession session,
+                                           ImportContext context,
+                                           ImportMeter meter,
+                                           ImportCheckpoints.Run run,
+                                           ImportReport report,
+                                           ImportPipeline.Feed<EventRow> feed,
+                                           ImportManifest.Stage stage,
+                                           boolean upstreamChanged,
+                                           Map<Integer, Long> citiesByIndex,
+                                           Map<String, Long> organizers) throws IOException, SQLException {
+        Map<String, Long> eventsByTitle = new HashMap<>();
+        String brandColor = colorToHex(theme.primaryColor());
+        List<Long> eventOrganizers = organizers.values().stream().limit(3).toList();
+        BulkUpsertWriter writer = new BulkUpsertWriter(session, "events",
+                List.of("title", "description", "start_date", "end_date", "city_id", "venue", "image_path", "brand_color"),
+                List.of("title"),
+                List.of(BulkUpsertWriter.values("start_date"),
+                        BulkUpsertWriter.values("end_date"),
+                        BulkUpsertWriter.values("city_id"),
+                        BulkUpsertWriter.values("venue"),
+                        BulkUpsertWriter.values("image_path"),
+                        BulkUpsertWriter.values("brand_color")),
+                true, BulkUpsertWriter.DEFAULT_BATCH_SIZE, context.events());
+        boolean parsed = drainChanged(meter, run, stage, writer, feed, upstreamChanged, row -> {
+            LocalDate startDate = row.startDate();
+            LocalDate endDate = startDate != null ? startDate.plusDays(Math.max(0, row.days() - 1)) : null;
+            Long cityId = parseCityReference(row.cityRef(), citiesByIndex);
+            String venue = cityId != null ? "Главная площадка" : "Онлайн";
+            List<Object> values = Arrays.asList(row.title(), "Программа конференции «" + row.title() + "».", startDate, endDate,
+                    cityId, venue, row.imagePath(), brandColor);
+            String key = row.title().toLowerCase(Locale.ROOT);
+            String hash = ImportManifest.fingerprint(List.of(ImportManifest.fingerprint(values), eventOrganizers));
+            Long unchangedId = stage.unchangedId(key, key, hash);
+            if (unchangedId != null) {
+                eventsByTitle.put(key, unchangedId);
+                return;
             }
-            try (PreparedStatement link = connection.prepareStatement(
-                    "INSERT INTO team_participants(team_id, user_id, activity_id) VALUES (?,?,?)")) {
-                link.setLong(1, teamId);
-                link.setLong(2, winnerId);
-                link.setLong(3, activityId);
-                link.executeUpdate();
+            writer.add(values, eventId -> {
+                eventsByTitle.put(key, eventId);
+                context.recordEventStart(eventId, startDate);
+                upsertEventOrganizers(session, eventId, eventOrganizers);
+                stage.record(key, key, hash, eventId);
+            });
+        });
+        if (!parsed) {
+            eventsByTitle.putAll(stage.references());
+        }
+        writer.flush();
+        completeStage(meter, run, report, stage, feed, parsed);
+        report.addEvents(eventsByTitle.size());
+        return eventsByTitle;
+    }
+
+    private void importActivities(ImportSession session,
+                                  ImportContext context,
+                                  ImportMeter meter,
+                                  ImportCheckpoints.Run run,
+                                  ImportReport report,
+                                  ImportPipeline.Feed<ActivityRow> feed,
+                                  ImportManifest.Stage stage,
+                                  boolean upstreamChanged,
+                                  Map<String, Long> eventsByTitle,
+                                  Map<String, Long> moderators,
+                                  Map<String, Long> jury,
+                                  Map<String, Long> participants) throws IOException, SQLException {
+        // activities have no unique natural key, so existing rows are matched by (event_id, name) in the context
+        BulkUpsertWriter writer = new BulkUpsertWriter(session, "activities",
+                List.of("event_id", "name", "description", "start_time", "end_time", "moderator_id"),
+                List.of("event_id", "name"),
+                List.of(BulkUpsertWriter.values("start_time"),
+                        BulkUpsertWriter.values("end_time"),
+                        "moderator_id = COALESCE(VALUES(moderator_id), moderator_id)"),
+                false, BulkUpsertWriter.DEFAULT_BATCH_SIZE, context.activities());
+        boolean parsed = drainChanged(meter, run, stage, writer, feed, upstreamChanged, row -> {
+            Long eventId = row.eventTitle() != null ? eventsByTitle.get(row.eventTitle().toLowerCase(Locale.ROOT)) : null;
+            if (eventId == null) {
+                throw new SQLException("Активность " + row.name() + " не привязана к мероприятию. Убедитесь, что лист мероприятий импортирован.");
             }
-            try (PreparedStatement update = connection.prepareStatement(
-                    "UPDATE activities SET winner_team = ? WHERE id = ?")) {
-                update.setString(1, teamName);
-                update.setLong(2, activityId);
-                update.executeUpdate();
+            LocalDateTime start = buildDateTime(context, eventId, row.day(), row.startTime());
+            LocalDateTime end = start != null ? start.plusHours(1) : null;
+            Long moderatorId = moderators.get(normalizeName(row.moderatorName()));
+
+            List<Long> juryMembers = new ArrayList<>();
+            for (String juryName : row.juryNames()) {
+                Long juryId = jury.get(normalizeName(juryName));
+                if (juryId != null) {
+                    juryMembers.add(juryId);
+                }
             }
-        }
-    }
 
-    private Long findId(Connection connection, String sql, String value) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
-            statement.setString(1, value);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getLong(1);
-                }
+            String winnerName = row.winnerName();
+            Long winnerId = winnerName.isEmpty() ? null : participants.get(normalizeName(winnerName));
+
+            List<Object> values = Arrays.asList(eventId, row.name(), "Активность в рамках конференции", start, end, moderatorId);
+            String key = normalizeName(row.eventTitle()) + " / " + normalizeName(row.name());
+            String hash = ImportManifest.fingerprint(Arrays.asList(ImportManifest.fingerprint(values), juryMembers, winnerId));
+            if (stage.unchangedId(key, null, hash) != null) {
+                return;
             }
-        }
-        return null;
+            writer.add(values, activityId -> {
+                assignJury(session, activityId, juryMembers);
+                if (winnerId != null) {
+                    createWinnerTeam(session, activityId, winnerName, winnerId);
+                    report.addTeams(1);
+                }
+                report.addActivities(1);
+                stage.record(key, null, hash, activityId);
+            });
+        });
+        writer.flush();
+        completeStage(meter, run, report, stage, feed, parsed);
     }
 
-    private void setDate(PreparedStatement statement, int index, LocalDate date) throws SQLException {
-        if (date != null) {
-            statement.setDate(index, Date.valueOf(date));
-        } else {
-            statement.setNull(index, java.sql.Types.DATE);
+    private void upsertEventOrganizers(ImportSession session, long eventId, List<Long> organizers) throws SQLException {
+        PreparedStatement delete = session.prepare("DELETE FROM event_organizers WHERE event_id = ?");
+        delete.setLong(1, eventId);
+        session.executeUpdate(delete);
+
+        PreparedStatement insert = session.prepare("INSERT INTO event_organizers(event_id, user_id) VALUES (?, ?)");
+        for (Long organizerId : organizers) {
+            insert.setLong(1, eventId);
+            insert.setLong(2, organizerId);
+            insert.addBatch();
         }
+        session.executeBatch(insert);
     }
 
-    private void setTimestamp(PreparedStatement statement, int index, LocalDateTime value) throws SQLException {
-        if (value != null) {
-            statement.setTimestamp(index, Timestamp.valueOf(value));
-        } else {
-            statement.setNull(index, java.sql.Types.TIMESTAMP);
+    private void assignJury(ImportSession session, long activityId, List<Long> juryMembers) throws SQLException {
+        PreparedStatement delete = session.prepare("DELETE FROM activity_jury WHERE activity_id = ?");
+        delete.setLong(1, activityId);
+        session.executeUpdate(delete);
+
+        PreparedStatement insert = session.prepare("INSERT INTO activity_jury(activity_id, user_id) VALUES (?, ?)");
+        for (Long juryId : juryMembers) {
+            insert.setLong(1, activityId);
+            insert.setLong(2, juryId);
+            insert.addBatch();
         }
+        session.executeBatch(insert);
     }
 
-    private void setLong(PreparedStatement statement, int index, Long value) throws SQLException {
-        if (value != null) {
-            statement.setLong(index, value);
-        } else {
-            statement.setNull(index, java.sql.Types.BIGINT);
+    private void createWinnerTeam(ImportSession session, long activityId, String teamName, long winnerId) throws SQLException {
+        PreparedStatement statement = session.prepareReturningKeys("INSERT INTO teams(name, track, score) VALUES (?,?,?)");
+        statement.setString(1, teamName + " — победители");
+        statement.setString(2, "CyberShield Challenge");
+        statement.setInt(3, 100);
+        session.executeUpdate(statement);
+        long teamId;
+        try (ResultSet keys = statement.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("Не удалось получить идентификатор команды");
+            }
+            teamId = keys.getLong(1);
         }
+
+        PreparedStatement link = session.prepare("INSERT INTO team_participants(team_id, user_id, activity_id) VALUES (?,?,?)");
+        link.setLong(1, teamId);
+        link.setLong(2, winnerId);
+        link.setLong(3, activityId);
+        session.executeUpdate(link);
+
+        PreparedStatement update = session.prepare("UPDATE activities SET winner_team = ? WHERE id = ?");
+        update.setString(1, teamName);
+        update.setLong(2, activityId);
+        session.executeUpdate(update);
     }
 
     private LocalDate parseExcelDate(String value) {
@@ -602,31 +656,21 @@ public class ExcelImportService {
         }
         try {
             double numeric = Double.parseDouble(value);
-            return DateUtil.getLocalDateTime(numeric).toLocalDate();
+            return XlsxSheetReader.toLocalDateTime(numeric).toLocalDate();
         } catch (NumberFormatException ex) {
-            return null;
+            return parseTextDate(value.trim());
         }
     }
 
-    private LocalDateTime buildDateTime(Connection connection, Long eventId, String dayValue, String timeValue) throws SQLException {
+    private LocalDateTime buildDateTime(ImportContext context, Long eventId, long day, LocalTime time) {
         if (eventId == null) {
             return null;
         }
-        LocalDate startDate = null;
-        try (PreparedStatement statement = connection.prepareStatement("SELECT start_date FROM events WHERE id = ?")) {
-            statement.setLong(1, eventId);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next() && rs.getDate(1) != null) {
-                    startDate = rs.getDate(1).toLocalDate();
-                }
-            }
-        }
+        LocalDate startDate = context.eventStartDate(eventId);
         if (startDate == null) {
             return null;
         }
-        long dayOffset = parseLongSafe(dayValue, 1) - 1;
-        LocalDate date = startDate.plusDays(Math.max(0, dayOffset));
-        LocalTime time = parseExcelTime(timeValue);
+        LocalDate date = startDate.plusDays(Math.max(0, day - 1));
         return LocalDateTime.of(date, time != null ? time : LocalTime.of(9, 0));
     }
 
@@ -636,8 +680,23 @@ public class ExcelImportService {
         }
         try {
             double numeric = Double.parseDouble(value);
-            return DateUtil.getLocalDateTime(numeric).toLocalTime();
+            return XlsxSheetReader.toLocalDateTime(numeric).toLocalTime();
         } catch (NumberFormatException ex) {
+            try {
+                return LocalTime.parse(value.trim(), TEXT_TIME);
+            } catch (DateTimeParseException parseEx) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * CSV exports carry dates as text, either {@code 31.12.2024} or ISO {@code 2024-12-31}.
+     */
+    private LocalDate parseTextDate(String value) {
+        try {
+            return value.indexOf('.') > 0 ? LocalDate.parse(value, TEXT_DATE) : LocalDate.parse(value);
+        } catch (DateTimeParseException ex) {
             return null;
         }
     }
@@ -0,0 +1,288 @@
+package com.infosecconference.desktop.service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads images below {@code images.root} scaled to fit a square box, without touching the Event Dispatch Thread.
+ * Decoding runs on a small background pool that serves the newest request first, so rows scrolled into view are
+ * shown before the ones already scrolled past; requests beyond the backlog limit are dropped and simply made again
+ * when their row is painted next. Scaled images are kept in a memory-bounded LRU and as PNG thumbnails in
+ * {@code images.root/.thumbs}, keyed by the source's modification time.
+ */
+public final class ImageService implements AutoCloseable {
+    private static final long DEFAULT_MEMORY_BYTES = 64L * 1024 * 1024;
+    private static final int MAX_PENDING = 256;
+    private static final String THUMBS_DIRECTORY = ".thumbs";
+    private static final BufferedImage MISSING = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+
+    private final Path root;
+    private final Path thumbsRoot;
+    private final long memoryBytes;
+    private final ThreadPoolExecutor executor;
+    private final Map<Key, BufferedImage> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<Key, CompletableFuture<BufferedImage>> pending = new HashMap<>();
+    private final LifoQueue queue;
+    private long cachedBytes;
+
+    public ImageService(Path root) {
+        this(root, DEFAULT_MEMORY_BYTES, Math.max(2, Runtime.getRuntime().availableProcessors() / 2));
+    }
+
+    public ImageService(Path root, long memoryBytes, int threads) {
+        this.root = root.toAbsolutePath().normalize();
+        this.thumbsRoot = this.root.resolve(THUMBS_DIRECTORY);
+        this.memoryBytes = memoryBytes;
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "image-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.NORM_PRIORITY - 1);
+            return thread;
+        };
+        this.queue = new LifoQueue();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue, factory);
+    }
+
+    /**
+     * Returns the image if it is already in memory; {@code null} when it still has to be loaded or does not exist.
+     */
+    public synchronized BufferedImage cached(String relativePath, int size) {
+        BufferedImage image = cache.get(new Key(relativePath, size));
+        return image != MISSING ? image : null;
+    }
+
+    /**
+     * Loads the image scaled to fit {@code size}×{@code size}. The future completes with {@code null} when the
+     * file is missing or unreadable, and is cancelled when the request was dropped from the backlog.
+     */
+    public CompletableFuture<BufferedImage> load(String relativePath, int size) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        Key key = new Key(relativePath, size);
+        CompletableFuture<BufferedImage> future;
+        synchronized (this) {
+            BufferedImage image = cache.get(key);
+            if (image != null) {
+                return CompletableFuture.completedFuture(image != MISSING ? image : null);
+            }
+            future = pending.get(key);
+            if (future != null) {
+                return future;
+            }
+            future = new CompletableFuture<>();
+            pending.put(key, future);
+        }
+        CompletableFuture<BufferedImage> result = future;
+        executor.execute(new LoadTask(key, result));
+        dropOverflow();
+        return result;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private void dropOverflow() {
+        // the oldest requests sit at the tail; their rows have most likely been scrolled away
+        while (queue.size() > MAX_PENDING) {
+            Runnable dropped = queue.pollLast();
+            if (dropped instanceof LoadTask task) {
+                synchronized (this) {
+                    pending.remove(task.key, task.future);
+                }
+                task.future.cancel(false);
+            }
+        }
+    }
+
+    private BufferedImage loadNow(Key key) {
+        Path source = root.resolve(key.path()).normalize();
+        if (!source.startsWith(root)) {
+            return MISSING;
+        }
+        try {
+            long modified = Files.getLastModifiedTime(source).toMillis();
+            Path thumbnail = thumbnailPath(key, modified);
+            if (Files.isRegularFile(thumbnail)) {
+                BufferedImage image = ImageIO.read(thumbnail.toFile());
+                if (image != null) {
+                    return image;
+                }
+            }
+            BufferedImage image = decodeScaled(source, key.size());
+            if (image == null) {
+                return MISSING;
+            }
+            storeThumbnail(key, thumbnail, image);
+            return image;
+        } catch (NoSuchFileException ex) {
+            return MISSING;
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Не удалось загрузить изображение " + source + ": " + ex.getMessage());
+            return MISSING;
+        }
+    }
+
+    /**
+     * Decodes with source subsampling so a large photo is never expanded at full resolution; the subsampled image
+     * is still at least twice the box and is scaled down the rest of the way with bilinear filtering.
+     */
+    private static BufferedImage decodeScaled(Path source, int size) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                int subsampling = Math.max(1, Math.max(width, height) / (size * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return scale(reader.read(0, param), size);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage scale(BufferedImage image, int size) {
+        double ratio = Math.min(1.0, Math.min((double) size / image.getWidth(), (double) size / image.getHeight()));
+        int width = Math.max(1, (int) Math.round(image.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(image.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = scaled.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return scaled;
+    }
+
+    private Path thumbnailPath(Key key, long modified) {
+        return thumbsRoot.resolve(String.valueOf(key.size())).resolve(pathHash(key.path()) + "-" + modified + ".png");
+    }
+
+    private void storeThumbnail(Key key, Path thumbnail, BufferedImage image) {
+        try {
+            Path directory = thumbnail.getParent();
+            Files.createDirectories(directory);
+            // thumbnails of earlier versions of the source are no longer reachable
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, pathHash(key.path()) + "-*.png")) {
+                for (Path old : stale) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            Path temp = Files.createTempFile(directory, "thumb", ".tmp");
+            ImageIO.write(image, "png", temp.toFile());
+            try {
+                Files.move(temp, thumbnail, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(temp, thumbnail, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException ex) {
+            // a missing thumbnail only costs a decode next time
+            System.err.println("Не удалось сохранить миниатюру " + thumbnail + ": " + ex.getMessage());
+        }
+    }
+
+    private synchronized void remember(Key key, BufferedImage image) {
+        BufferedImage previous = cache.put(key, image);
+        if (previous != null) {
+            cachedBytes -= bytes(previous);
+        }
+        cachedBytes += bytes(image);
+        Iterator<BufferedImage> eldest = cache.values().iterator();
+        while (cachedBytes > memoryBytes && eldest.hasNext()) {
+            cachedBytes -= bytes(eldest.next());
+            eldest.remove();
+        }
+    }
+
+    private static long bytes(BufferedImage image) {
+        return image == MISSING ? 0 : (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private static String pathHash(String path) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(path.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-1 недоступен", ex);
+        }
+    }
+
+    /**
+     * Work queue that hands the most recently submitted task out first; the executor only ever calls
+     * {@code offer}, which is redirected to the head.
+     */
+    private static final class LifoQueue extends LinkedBlockingDeque<Runnable> {
+        @Override
+        public boolean offer(Runnable task) {
+            return offerFirst(task);
+        }
+    }
+
+    private final class LoadTask implements Runnable {
+        private final Key key;
+        private final CompletableFuture<BufferedImage> future;
+
+        private LoadTask(Key key, CompletableFuture<BufferedImage> future) {
+            this.key = key;
+            this.future = future;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) {
+                return;
+            }
+            BufferedImage image = loadNow(key);
+            synchronized (ImageService.this) {
+                pending.remove(key, future);
+            }
+            remember(key, image);
+            future.complete(image != MISSING ? image : null);
+        }
+    }
+
+    private record Key(String path, int size) {
+    }
+}
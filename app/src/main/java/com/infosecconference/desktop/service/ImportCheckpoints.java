@@ -0,0 +1,165 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Progress of a chunked import: per workbook the sheet, the last sheet row whose data is committed and the file
+ * hash it was read from. A rerun resumes after that row as long as the file is unchanged; the table is cleared
+ * once an import finishes.
+ */
+public final class ImportCheckpoints {
+    private final Map<String, Checkpoint> checkpoints;
+
+    private ImportCheckpoints(Map<String, Checkpoint> checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
+    /**
+     * Reads the checkpoints left by an interrupted import.
+     */
+    public static ImportCheckpoints load(Connection connection) throws SQLException {
+        Map<String, Checkpoint> checkpoints = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT source, sheet_name, last_row, file_hash, completed FROM import_checkpoint")) {
+            while (rs.next()) {
+                checkpoints.put(rs.getString(1),
+                        new Checkpoint(rs.getString(2), rs.getInt(3), rs.getString(4), rs.getBoolean(5)));
+            }
+        }
+        return new ImportCheckpoints(checkpoints);
+    }
+
+    /**
+     * Hash of the workbook when an interrupted import already finished it, otherwise {@code null}.
+     */
+    public String completedHash(String source) {
+        Checkpoint checkpoint = checkpoints.get(source);
+        return checkpoint != null && checkpoint.completed() ? checkpoint.fileHash() : null;
+    }
+
+    /**
+     * Whether an interrupted import committed rows of the workbook, so stages reading its ids must not assume
+     * they are unchanged.
+     */
+    public boolean touched(String source) {
+        return checkpoints.containsKey(source);
+    }
+
+    /**
+     * @param commitEvery rows between commits; {@code 0} keeps the whole import in one transaction
+     */
+    public Run start(ImportSession session, ImportReport report, int commitEvery) throws SQLException {
+        return new Run(session, report, commitEvery, ChangeTracking.serverTime(session.connection()));
+    }
+
+    private record Checkpoint(String sheetName, int lastRow, String fileHash, boolean completed) {
+    }
+
+    /**
+     * Commits and checkpoints one import run on the import transaction's connection. Before every commit the rows
+     * written since the previous one get a fresh change stamp, see {@link ChangeTracking#restamp}.
+     */
+    public final class Run {
+        private final ImportSession session;
+        private final ImportReport report;
+        private final int commitEvery;
+        private int sinceCommit;
+        private LocalDateTime chunkStarted;
+
+        private Run(ImportSession session, ImportReport report, int commitEvery, LocalDateTime started) {
+            this.session = session;
+            this.report = report;
+            this.commitEvery = commitEvery;
+            this.chunkStarted = started;
+        }
+
+        /**
+         * Wraps a stage consumer so rows committed by an interrupted run are trusted and, in chunked mode, the
+         * writer and manifest are flushed and committed together with a checkpoint every {@code commitEvery} rows.
+         */
+        public <T> SQLConsumer<T> tracking(ImportManifest.Stage stage,
+                                           BulkUpsertWriter writer,
+                                           ImportPipeline.Feed<T> feed,
+                                           SQLConsumer<T> consumer) {
+            boolean[] resolved = {false};
+            return row -> {
+                if (!resolved[0]) {
+                    resolved[0] = true;
+                    resume(stage, feed);
+                }
+                stage.atRow(feed.rowNumber());
+                consumer.accept(row);
+                if (commitEvery > 0 && ++sinceCommit >= commitEvery) {
+                    writer.flush();
+                    stage.flush();
+                    save(stage.source(), feed.sheetName(), feed.rowNumber(), feed.fileHash(), false);
+                    commit();
+                }
+            };
+        }
+
+        /**
+         * Marks the workbook as finished; call after the stage's writer and manifest entries are flushed.
+         */
+        public void stageCompleted(ImportManifest.Stage stage, ImportPipeline.Feed<?> feed) throws SQLException {
+            if (commitEvery > 0 && feed.fileHash() != null) {
+                save(stage.source(), feed.sheetName(), feed.rowNumber(), feed.fileHash(), true);
+                commit();
+            }
+        }
+
+        /**
+         * Drops the checkpoints once every stage is written; the final commit is left to the transaction.
+         */
+        public void finish() throws SQLException {
+            if (commitEvery > 0 || !checkpoints.isEmpty()) {
+                session.executeUpdate(session.prepare("DELETE FROM import_checkpoint"));
+            }
+            checkpoints.clear();
+            ChangeTracking.restamp(session.connection(), chunkStarted);
+            ChangeTracking.pruneTombstones(session.connection());
+        }
+
+        private void resume(ImportManifest.Stage stage, ImportPipeline.Feed<?> feed) throws SQLException {
+            Checkpoint checkpoint = checkpoints.get(stage.source());
+            if (checkpoint == null || checkpoint.completed() || !checkpoint.fileHash().equals(feed.fileHash())) {
+                return;
+            }
+            stage.resumeThrough(checkpoint.lastRow());
+            report.warn("Импорт " + stage.source() + " продолжен после строки " + checkpoint.lastRow());
+        }
+
+        private void save(String source, String sheetName, int lastRow, String fileHash, boolean completed)
+                throws SQLException {
+            PreparedStatement statement = session.prepare("""
+                    INSERT INTO import_checkpoint(source, sheet_name, last_row, file_hash, completed) VALUES (?, ?, ?, ?, ?)
+                    ON DUPLICATE KEY UPDATE sheet_name = VALUES(sheet_name), last_row = VALUES(last_row),
+                        file_hash = VALUES(file_hash), completed = VALUES(completed)
+                    """);
+            statement.setString(1, source);
+            statement.setString(2, sheetName);
+            statement.setInt(3, lastRow);
+            statement.setString(4, fileHash);
+            statement.setBoolean(5, completed);
+            session.executeUpdate(statement);
+        }
+
+        private void commit() throws SQLException {
+            // executeInTransaction keeps auto-commit off, so each commit closes one chunk and opens the next
+            ChangeTracking.restamp(session.connection(), chunkStarted);
+            session.connection().commit();
+            chunkStarted = ChangeTracking.serverTime(session.connection());
+            sinceCommit = 0;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.infosecconference.desktop.service;
+
+/**
+ * Notified on the importing thread once imported rows have been committed, including the chunks a failed
+ * chunked import left behind. Caches of database reads use it to drop stale results.
+ */
+@FunctionalInterface
+public interface ImportCommitListener {
+    void importCommitted(ImportReport report);
+}
@@ -0,0 +1,117 @@
+package com.infosecconference.desktop.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reference data of the target tables loaded once per import with one query per table. The writers answer
+ * "does this key exist and what is its id" from these maps and add newly inserted rows to them, so no lookup
+ * query is issued per row.
+ */
+public final class ImportContext {
+    private final KeyIndex countries = new KeyIndex();
+    private final KeyIndex cities = new KeyIndex();
+    private final KeyIndex users = new KeyIndex();
+    private final KeyIndex events = new KeyIndex();
+    private final KeyIndex activities = new KeyIndex();
+    private final Map<Long, LocalDate> eventStartDates = new HashMap<>();
+
+    private ImportContext() {
+    }
+
+    public static ImportContext load(ImportSession session) throws SQLException {
+        ImportContext context = new ImportContext();
+        loadNames(session, "SELECT id, name FROM countries", context.countries);
+        loadNames(session, "SELECT id, name FROM cities", context.cities);
+        loadNames(session, "SELECT id, email FROM conference_users", context.users);
+
+        PreparedStatement events = session.prepare("SELECT id, title, start_date FROM events");
+        try (ResultSet rs = session.executeQuery(events)) {
+            while (rs.next()) {
+                long id = rs.getLong(1);
+                context.events.put(KeyIndex.key(rs.getString(2)), id);
+                if (rs.getDate(3) != null) {
+                    context.eventStartDates.put(id, rs.getDate(3).toLocalDate());
+                }
+            }
+        }
+
+        PreparedStatement activities = session.prepare("SELECT id, event_id, name FROM activities");
+        try (ResultSet rs = session.executeQuery(activities)) {
+            while (rs.next()) {
+                context.activities.put(KeyIndex.key(rs.getLong(2), rs.getString(3)), rs.getLong(1));
+            }
+        }
+        return context;
+    }
+
+    private static void loadNames(ImportSession session, String sql, KeyIndex index) throws SQLException {
+        PreparedStatement statement = session.prepare(sql);
+        try (ResultSet rs = session.executeQuery(statement)) {
+            while (rs.next()) {
+                index.put(KeyIndex.key(rs.getString(2)), rs.getLong(1));
+            }
+        }
+    }
+
+    public KeyIndex countries() {
+        return countries;
+    }
+
+    public KeyIndex cities() {
+        return cities;
+    }
+
+    public KeyIndex users() {
+        return users;
+    }
+
+    public KeyIndex events() {
+        return events;
+    }
+
+    public KeyIndex activities() {
+        return activities;
+    }
+
+    public LocalDate eventStartDate(long eventId) {
+        return eventStartDates.get(eventId);
+    }
+
+    public void recordEventStart(long eventId, LocalDate startDate) {
+        if (startDate != null) {
+            eventStartDates.put(eventId, startDate);
+        } else {
+            eventStartDates.remove(eventId);
+        }
+    }
+
+    /**
+     * Natural key to id map using the same case folding as the key columns' collation.
+     */
+    public static final class KeyIndex {
+        private final Map<String, Long> ids = new HashMap<>();
+
+        public Long get(String key) {
+            return ids.get(key);
+        }
+
+        public void put(String key, long id) {
+            ids.put(key, id);
+        }
+
+        public int size() {
+            return ids.size();
+        }
+
+        public static String key(Object... parts) {
+            return BulkUpsertWriter.normalizeKey(Arrays.asList(parts));
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.infosecconference.desktop.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Remembers what the previous import wrote: a content hash per source workbook and, per logical row key,
+ * the hash of the values written together with the resulting entity id. Unchanged workbooks and rows are
+ * then skipped while their ids are still available to the later stages that reference them.
+ */
+public final class ImportManifest {
+    private static final String FILE_KEY = "";
+    private static final int BATCH_SIZE = 500;
+
+    private final Map<String, String> fileHashes;
+
+    private ImportManifest(Map<String, String> fileHashes) {
+        this.fileHashes = fileHashes;
+    }
+
+    /**
+     * Reads the stored workbook hashes; the table itself is created by the schema migrations.
+     */
+    public static ImportManifest load(Connection connection) throws SQLException {
+        Map<String, String> hashes = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT source, content_hash FROM import_manifest WHERE row_key = ?")) {
+            statement.setString(1, FILE_KEY);
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    hashes.put(rs.getString(1), rs.getString(2));
+                }
+            }
+        }
+        return new ImportManifest(hashes);
+    }
+
+    public String fileHash(String source) {
+        return fileHashes.get(source);
+    }
+
+    public Stage begin(ImportSession session, String source, boolean trustRows) throws SQLException {
+        Stage stage = new Stage(session, source, trustRows);
+        if (trustRows) {
+            stage.loadRows();
+        }
+        return stage;
+    }
+
+    /**
+     * SHA-256 over the written values; {@code null} and empty strings hash differently.
+     */
+    public static String fingerprint(List<?> values) {
+        MessageDigest digest = sha256();
+        for (Object value : values) {
+            if (value == null) {
+                digest.update((byte) 0);
+            } else {
+                digest.update(value.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 0x1F);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 недоступен", ex);
+        }
+    }
+
+    private record Entry(String ref, String hash, long entityId) {
+    }
+
+    /**
+     * Manifest view for one source workbook within the import transaction.
+     */
+    public final class Stage {
+        private final ImportSession session;
+        private final String source;
+        private final boolean trustRows;
+        private final Map<String, Entry> rows = new HashMap<>();
+        private boolean rowsLoaded;
+        private int resumedThrough;
+        private int currentRow;
+        private PreparedStatement pending;
+        private int pendingCount;
+        private int written;
+        private int skipped;
+
+        private Stage(ImportSession session, String source, boolean trustRows) {
+            this.session = session;
+            this.source = source;
+            this.trustRows = trustRows;
+        }
+
+        private void loadRows() throws SQLException {
+            rowsLoaded = true;
+            PreparedStatement statement = session.prepare(
+                    "SELECT row_key, row_ref, content_hash, entity_id FROM import_manifest WHERE source = ? AND row_key <> ?");
+            statement.setString(1, source);
+            statement.setString(2, FILE_KEY);
+            try (ResultSet rs = session.executeQuery(statement)) {
+                while (rs.next()) {
+                    rows.put(rs.getString(1), new Entry(rs.getString(2), rs.getString(3), rs.getLong(4)));
+                }
+            }
+        }
+
+        public String source() {
+            return source;
+        }
+
+        /**
+         * Trusts the recorded rows up to {@code rowNumber} even in a full import, because an interrupted run
+         * already committed them.
+         */
+        public void resumeThrough(int rowNumber) throws SQLException {
+            resumedThrough = rowNumber;
+            if (rowNumber > 0 && !rowsLoaded) {
+                loadRows();
+            }
+        }
+
+        /**
+         * Sheet row the following {@link #unchangedId} calls belong to.
+         */
+        public void atRow(int rowNumber) {
+            currentRow = rowNumber;
+        }
+
+        /**
+         * Returns the id written last time when the row hash is unchanged, otherwise {@code null}. A row that only
+         * moved (same values, different reference such as its position in the sheet) just has its reference updated.
+         */
+        public Long unchangedId(String rowKey, String ref, String hash) throws SQLException {
+            if (!trustRows && currentRow > resumedThrough) {
+                return null;
+            }
+            Entry entry = rows.get(rowKey);
+            if (entry == null || !entry.hash().equals(hash)) {
+                return null;
+            }
+            skipped++;
+            if (!Objects.equals(entry.ref(), ref)) {
+                rows.put(rowKey, new Entry(ref, hash, entry.entityId()));
+                queue(rowKey, ref, hash, entry.entityId());
+            }
+            return entry.entityId();
+        }
+
+        /**
+         * Reference to id pairs of every row recorded for the source, used when the whole workbook is skipped.
+         */
+        public Map<String, Long> references() {
+            Map<String, Long> references = new HashMap<>();
+            for (Entry entry : rows.values()) {
+                if (entry.ref() != null) {
+                    references.put(entry.ref(), entry.entityId());
+                }
+            }
+            skipped += rows.size();
+            return references;
+        }
+
+        public void record(String rowKey, String ref, String hash, long entityId) throws SQLException {
+            written++;
+            rows.put(rowKey, new Entry(ref, hash, entityId));
+            queue(rowKey, ref, hash, entityId);
+        }
+
+        public void complete(String fileHash) throws SQLException {
+            if (fileHash != null) {
+                queue(FILE_KEY, null, fileHash, null);
+                fileHashes.put(source, fileHash);
+            }
+            flush();
+        }
+
+        public int writtenRows() {
+            return written;
+        }
+
+        public int skippedRows() {
+            return skipped;
+        }
+
+        private void queue(String rowKey, String ref, String hash, Long entityId) throws SQLException {
+            if (pending == null) {
+                pending = session.prepare("""
+                        INSERT INTO import_manifest(source, row_key, row_ref, content_hash, entity_id) VALUES (?, ?, ?, ?, ?)
+                        ON DUPLICATE KEY UPDATE row_ref = VALUES(row_ref), content_hash = VALUES(content_hash), entity_id = VALUES(entity_id)
+                        """);
+            }
+            pending.setString(1, source);
+            pending.setString(2, rowKey);
+            pending.setString(3, ref);
+            pending.setString(4, hash);
+            if (entityId != null) {
+                pending.setLong(5, entityId);
+            } else {
+                pending.setNull(5, java.sql.Types.BIGINT);
+            }
+            pending.addBatch();
+            if (++pendingCount >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (pendingCount > 0) {
+                session.executeBatch(pending);
+                pendingCount = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+/**
+ * Times the import stage by stage, counts rows and round trips and reports progress to the listener. Lives on
+ * the writer thread only.
+ */
+final class ImportMeter {
+    private static final int PROGRESS_EVERY_ROWS = BulkUpsertWriter.DEFAULT_BATCH_SIZE;
+
+    private final ImportReport report;
+    private final ImportSession session;
+    private final ImportProgressListener listener;
+    private final int stageCount;
+    private final long importStarted = System.nanoTime();
+
+    private int completedStages;
+    private long totalRows;
+
+    private String stage;
+    private long stageStarted;
+    private long stageExecutedAtStart;
+    private long stageRows;
+    private long stageBytes;
+    private long stageParseNanos;
+
+    ImportMeter(ImportReport report, ImportSession session, ImportProgressListener listener, int stageCount) {
+        this.report = report;
+        this.session = session;
+        this.listener = listener;
+        this.stageCount = stageCount;
+    }
+
+    void begin(String source) {
+        stage = source;
+        stageStarted = System.nanoTime();
+        stageExecutedAtStart = session.executedStatements();
+        stageRows = 0;
+        stageBytes = 0;
+        stageParseNanos = 0;
+        publish();
+    }
+
+    <T> SQLConsumer<T> counting(SQLConsumer<T> consumer) {
+        return row -> {
+            consumer.accept(row);
+            totalRows++;
+            if (++stageRows % PROGRESS_EVERY_ROWS == 0) {
+                publish();
+            }
+        };
+    }
+
+    void feedRead(ImportPipeline.Feed<?> feed) {
+        stageBytes += feed.bytesRead();
+        stageParseNanos += feed.parseNanos();
+    }
+
+    void end() {
+        report.recordStage(new ImportReport.StageTiming(stage,
+                System.nanoTime() - stageStarted,
+                stageParseNanos,
+                stageRows,
+                session.executedStatements() - stageExecutedAtStart,
+                stageBytes));
+        completedStages++;
+        publish();
+    }
+
+    private void publish() {
+        listener.onProgress(new ImportProgress(stage, completedStages, stageCount, stageRows, totalRows,
+                System.nanoTime() - importStarted));
+    }
+}
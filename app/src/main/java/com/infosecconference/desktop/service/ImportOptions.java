@@ -0,0 +1,33 @@
+package com.infosecconference.desktop.service;
+
+/**
+ * Tuning switches for {@link ExcelImportService#importAll(ImportOptions)}.
+ *
+ * @param incremental skip workbooks and rows whose content hash matches the import manifest
+ * @param commitEvery commit and checkpoint after this many rows; {@code 0} imports in a single transaction
+ */
+public record ImportOptions(boolean incremental, int commitEvery) {
+    public ImportOptions {
+        if (commitEvery < 0) {
+            throw new IllegalArgumentException("Размер порции импорта не может быть отрицательным");
+        }
+    }
+
+    public static ImportOptions defaults() {
+        return new ImportOptions(true, 0);
+    }
+
+    /**
+     * Rewrites every workbook and row regardless of the manifest, e.g. after the tables were reseeded.
+     */
+    public static ImportOptions full() {
+        return new ImportOptions(false, 0);
+    }
+
+    /**
+     * Commits every {@code rows} rows so a failed or killed import resumes from its last checkpoint.
+     */
+    public ImportOptions chunked(int rows) {
+        return new ImportOptions(incremental, rows);
+    }
+}
@@ -0,0 +1,275 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Parses several workbooks ({@code .xlsx}, or {@code .csv}/{@code .tsv} exports) concurrently on a bounded pool and hands their rows to a single writer as batches.
+ * Each workbook gets its own bounded queue, so a parser that runs ahead of the writer blocks instead of
+ * buffering the whole sheet. Feeds must be submitted in the order the writer drains them: the pool starts
+ * tasks first-in-first-out, which guarantees the feed being drained always has a thread. A {@link Feed#reparse()}
+ * is submitted after producers that may already be blocked on their full queues, so it never waits for the pool
+ * and gets a thread of its own instead.
+ */
+public final class ImportPipeline implements AutoCloseable {
+    private static final int BATCH_SIZE = BulkUpsertWriter.DEFAULT_BATCH_SIZE;
+    private static final int QUEUED_BATCHES = 4;
+
+    private final ExecutorService executor;
+    private final ExecutorService reparseExecutor;
+
+    public ImportPipeline(int parallelism) {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "import-parser-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), factory);
+        this.reparseExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "import-reparse-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts parsing the first sheet of {@code path}; rows for which the parser returns {@code null} are dropped.
+     */
+    public <T> Feed<T> submit(Path path, boolean skipHeader, RowParser<T> parser) {
+        return submit(path, skipHeader, parser, null);
+    }
+
+    /**
+     * Like {@link #submit(Path, boolean, RowParser)}, but the file is hashed first and left unparsed when the
+     * hash equals {@code previousHash}; see {@link Feed#unchanged()}.
+     */
+    public <T> Feed<T> submit(Path path, boolean skipHeader, RowParser<T> parser, String previousHash) {
+        Feed<T> feed = new Feed<>(this, path, skipHeader, parser);
+        executor.execute(() -> feed.produce(previousHash));
+        return feed;
+    }
+
+    private <T> Feed<T> reparse(Path path, boolean skipHeader, RowParser<T> parser) {
+        Feed<T> feed = new Feed<>(this, path, skipHeader, parser);
+        reparseExecutor.execute(() -> feed.produce(null));
+        return feed;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        reparseExecutor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    public interface RowParser<T> {
+        T parse(SheetRow row);
+    }
+
+    /**
+     * Ordered stream of parsed row batches for one workbook.
+     */
+    public static final class Feed<T> {
+        private static final Batch END = new Batch(List.of(), new int[0]);
+
+        private final ImportPipeline pipeline;
+        private final Path path;
+        private final boolean skipHeader;
+        private final RowParser<T> parser;
+        private final BlockingQueue<Batch> queue = new ArrayBlockingQueue<>(QUEUED_BATCHES);
+        private volatile Exception failure;
+        private volatile String fileHash;
+        private volatile boolean unchanged;
+        private volatile long bytesRead;
+        private volatile long parseNanos;
+        private volatile String sheetName;
+        private int rowNumber;
+
+        private Feed(ImportPipeline pipeline, Path path, boolean skipHeader, RowParser<T> parser) {
+            this.pipeline = pipeline;
+            this.path = path;
+            this.skipHeader = skipHeader;
+            this.parser = parser;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        /**
+         * SHA-256 of the file contents, available once {@link #drain} has returned.
+         */
+        public String fileHash() {
+            return fileHash;
+        }
+
+        /**
+         * Whether the file matched the previous hash and was therefore not parsed; valid after {@link #drain}.
+         */
+        public boolean unchanged() {
+            return unchanged;
+        }
+
+        /**
+         * Name of the parsed sheet, available once the first row has been drained.
+         */
+        public String sheetName() {
+            return sheetName;
+        }
+
+        /**
+         * Sheet row number of the row currently handed to the {@link #drain} consumer.
+         */
+        public int rowNumber() {
+            return rowNumber;
+        }
+
+        /**
+         * Bytes consumed from disk: the hashing pass plus, when the file was parsed, the archive itself.
+         * Valid after {@link #drain}.
+         */
+        public long bytesRead() {
+            return bytesRead;
+        }
+
+        /**
+         * Time the parser thread spent hashing and parsing, including waits on a full queue; valid after {@link #drain}.
+         */
+        public long parseNanos() {
+            return parseNanos;
+        }
+
+        /**
+         * Parses the file regardless of its hash, for unchanged files whose references changed upstream. The parse
+         * starts at once on a separate thread, even when every pool thread is held by a blocked producer.
+         */
+        public Feed<T> reparse() {
+            return pipeline.reparse(path, skipHeader, parser);
+        }
+
+        /**
+         * Passes every parsed row to {@code consumer} on the calling thread, rethrowing any parse failure.
+         */
+        @SuppressWarnings("unchecked")
+        public void drain(SQLConsumer<T> consumer) throws IOException, SQLException {
+            while (true) {
+                Batch batch;
+                try {
+                    batch = queue.take();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException("Импорт прерван во время чтения " + path.getFileName(), ex);
+                }
+                if (batch == END) {
+                    break;
+                }
+                for (int i = 0; i < batch.rows().size(); i++) {
+                    rowNumber = batch.rowNumbers()[i];
+                    consumer.accept((T) batch.rows().get(i));
+                }
+            }
+            Exception error = failure;
+            if (error instanceof IOException io) {
+                throw io;
+            }
+            if (error instanceof SQLException sql) {
+                throw sql;
+            }
+            if (error != null) {
+                throw new IOException("Ошибка разбора " + path.getFileName() + ": " + error.getMessage(), error);
+            }
+        }
+
+        private void produce(String previousHash) {
+            List<T> batch = new ArrayList<>(BATCH_SIZE);
+            int[] rowNumbers = new int[BATCH_SIZE];
+            boolean[] headerSkipped = {!skipHeader};
+            long started = System.nanoTime();
+            try {
+                fileHash = hash(path);
+                if (fileHash.equals(previousHash)) {
+                    unchanged = true;
+                    return;
+                }
+                bytesRead += Files.size(path);
+                SQLConsumer<SheetRow> collector = row -> {
+                    if (!headerSkipped[0]) {
+                        headerSkipped[0] = true;
+                        return;
+                    }
+                    T parsed = parser.parse(row);
+                    if (parsed == null) {
+                        return;
+                    }
+                    rowNumbers[batch.size()] = row.rowNumber();
+                    batch.add(parsed);
+                    if (batch.size() >= BATCH_SIZE) {
+                        publish(new Batch(new ArrayList<>(batch), rowNumbers.clone()));
+                        batch.clear();
+                    }
+                };
+                if (DelimitedSheetReader.supports(path)) {
+                    sheetName = path.getFileName().toString();
+                    DelimitedSheetReader.read(path, collector);
+                } else {
+                    sheetName = XlsxSheetReader.firstSheetName(path);
+                    XlsxSheetReader.readFirstSheet(path, collector);
+                }
+                if (!batch.isEmpty()) {
+                    publish(new Batch(batch, Arrays.copyOf(rowNumbers, batch.size())));
+                }
+            } catch (Exception ex) {
+                failure = ex;
+            } finally {
+                parseNanos = System.nanoTime() - started;
+                try {
+                    queue.put(END);
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        private String hash(Path path) throws IOException {
+            MessageDigest digest = ImportManifest.sha256();
+            try (InputStream stream = new DigestInputStream(Files.newInputStream(path), digest)) {
+                bytesRead = stream.transferTo(OutputStream.nullOutputStream());
+            } catch (NoSuchFileException ex) {
+                throw new IOException("Файл не найден: " + path, ex);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        }
+
+        private void publish(Batch batch) throws SQLException {
+            try {
+                queue.put(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Разбор " + path.getFileName() + " прерван", ex);
+            }
+        }
+
+        private record Batch(List<?> rows, int[] rowNumbers) {
+        }
+    }
+}
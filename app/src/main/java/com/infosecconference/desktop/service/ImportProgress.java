@@ -0,0 +1,22 @@
+package com.infosecconference.desktop.service;
+
+/**
+ * Snapshot of a running import, published after every parsed batch and at each stage boundary.
+ *
+ * @param stage           workbook currently being written
+ * @param completedStages stages finished so far
+ * @param stageCount      total number of stages
+ * @param stageRows       rows of the current workbook handed to the writer so far
+ * @param totalRows       rows handed to the writer across all stages
+ * @param elapsedNanos    time since the import started
+ */
+public record ImportProgress(String stage,
+                             int completedStages,
+                             int stageCount,
+                             long stageRows,
+                             long totalRows,
+                             long elapsedNanos) {
+    public int percent() {
+        return stageCount == 0 ? 100 : completedStages * 100 / stageCount;
+    }
+}
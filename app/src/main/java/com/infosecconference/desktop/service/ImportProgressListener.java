@@ -0,0 +1,13 @@
+package com.infosecconference.desktop.service;
+
+/**
+ * Receives {@link ImportProgress} updates on the importing thread. A {@code SwingWorker} running the import
+ * passes its {@code publish} method here and moves the progress bar in {@code process}.
+ */
+@FunctionalInterface
+public interface ImportProgressListener {
+    ImportProgressListener NONE = progress -> {
+    };
+
+    void onProgress(ImportProgress progress);
+}
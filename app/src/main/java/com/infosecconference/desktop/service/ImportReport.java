@@ -14,6 +14,12 @@ public class ImportReport {
     private int jury;
     private int organizers;
     private int teams;
+    private long statementsPrepared;
+    private long statementsExecuted;
+    private long batchesExecuted;
+    private int unchangedRows;
+    private final List<StageTiming> stages = new ArrayList<>();
+    private final List<String> skippedWorkbooks = new ArrayList<>();
     private final List<String> warnings = new ArrayList<>();
 
     public void addCountries(int amount) {
@@ -52,6 +58,24 @@ public class ImportReport {
         teams += amount;
     }
 
+    public void recordStatements(long prepared, long executed, long batches) {
+        statementsPrepared += prepared;
+        statementsExecuted += executed;
+        batchesExecuted += batches;
+    }
+
+    public void recordStage(StageTiming timing) {
+        stages.add(timing);
+    }
+
+    public void addUnchangedRows(int amount) {
+        unchangedRows += amount;
+    }
+
+    public void skipWorkbook(String source) {
+        skippedWorkbooks.add(source);
+    }
+
     public void warn(String message) {
         warnings.add(message);
     }
@@ -92,7 +116,52 @@ public class ImportReport {
         return teams;
     }
 
+    public long statementsPrepared() {
+        return statementsPrepared;
+    }
+
+    public long statementsExecuted() {
+        return statementsExecuted;
+    }
+
+    public long batchesExecuted() {
+        return batchesExecuted;
+    }
+
+    public List<StageTiming> stages() {
+        return Collections.unmodifiableList(stages);
+    }
+
+    public long totalNanos() {
+        return stages.stream().mapToLong(StageTiming::wallNanos).sum();
+    }
+
+    public int unchangedRows() {
+        return unchangedRows;
+    }
+
+    public List<String> skippedWorkbooks() {
+        return Collections.unmodifiableList(skippedWorkbooks);
+    }
+
     public List<String> warnings() {
         return Collections.unmodifiableList(warnings);
     }
+
+    /**
+     * Measurements of one workbook stage. Wall time is spent on the writer thread and includes waiting for the
+     * parser; parse time is the parser thread's own and overlaps with earlier stages.
+     *
+     * @param roundTrips statements sent to the database while the stage was written
+     * @param bytesRead  bytes read from the workbook file, see {@link ImportPipeline.Feed#bytesRead()}
+     */
+    public record StageTiming(String source, long wallNanos, long parseNanos, long rows, long roundTrips, long bytesRead) {
+        public double rowsPerSecond() {
+            return wallNanos == 0 ? 0 : rows * 1_000_000_000.0 / wallNanos;
+        }
+
+        public long wallMillis() {
+            return wallNanos / 1_000_000;
+        }
+    }
 }
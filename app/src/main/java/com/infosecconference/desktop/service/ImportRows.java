@@ -0,0 +1,47 @@
+package com.infosecconference.desktop.service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * Typed rows produced by the workbook parsers and consumed by the import writer.
+ * Cross-workbook references stay unresolved until the writer has the ids of the referenced rows.
+ */
+public final class ImportRows {
+    private ImportRows() {
+    }
+
+    public record CountryRow(int index, String name, String isoCode) {
+    }
+
+    public record CityRow(int index, String name) {
+    }
+
+    public record UserRow(String fullName,
+                          String email,
+                          String role,
+                          LocalDate birthDate,
+                          String countryRef,
+                          String organization,
+                          String phone,
+                          String bio,
+                          String photoPath) {
+    }
+
+    public record EventRow(String title,
+                           LocalDate startDate,
+                           long days,
+                           String cityRef,
+                           String imagePath) {
+    }
+
+    public record ActivityRow(String eventTitle,
+                              String name,
+                              long day,
+                              LocalTime startTime,
+                              String moderatorName,
+                              List<String> juryNames,
+                              String winnerName) {
+    }
+}
@@ -0,0 +1,116 @@
+package com.infosecconference.desktop.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Import-scoped wrapper around the transaction connection that prepares each SQL text once and reuses the
+ * statement for the rest of the run. Statements handed out by {@link #prepare} are owned by the session and
+ * must not be closed by callers. Execution goes through the session so the report can show round trips.
+ */
+public final class ImportSession implements AutoCloseable {
+    private static final int MAX_CACHED_STATEMENTS = 64;
+
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statements = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long prepared;
+    private long executed;
+    private long batches;
+    private long cacheHits;
+
+    public ImportSession(Connection connection) {
+        this.connection = connection;
+    }
+
+    public Connection connection() {
+        return connection;
+    }
+
+    public PreparedStatement prepare(String sql) throws SQLException {
+        return cached(sql, false);
+    }
+
+    public PreparedStatement prepareReturningKeys(String sql) throws SQLException {
+        return cached(sql, true);
+    }
+
+    public int executeUpdate(PreparedStatement statement) throws SQLException {
+        executed++;
+        return statement.executeUpdate();
+    }
+
+    public ResultSet executeQuery(PreparedStatement statement) throws SQLException {
+        executed++;
+        return statement.executeQuery();
+    }
+
+    public int[] executeBatch(PreparedStatement statement) throws SQLException {
+        executed++;
+        batches++;
+        return statement.executeBatch();
+    }
+
+    public long preparedStatements() {
+        return prepared;
+    }
+
+    public long executedStatements() {
+        return executed;
+    }
+
+    public long executedBatches() {
+        return batches;
+    }
+
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        SQLException failure = null;
+        for (PreparedStatement statement : statements.values()) {
+            try {
+                statement.close();
+            } catch (SQLException ex) {
+                if (failure == null) {
+                    failure = ex;
+                } else {
+                    failure.addSuppressed(ex);
+                }
+            }
+        }
+        statements.clear();
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private PreparedStatement cached(String sql, boolean returnKeys) throws SQLException {
+        String key = returnKeys ? "K:" + sql : "S:" + sql;
+        PreparedStatement statement = statements.get(key);
+        if (statement != null) {
+            cacheHits++;
+            statement.clearParameters();
+            return statement;
+        }
+        statement = returnKeys
+                ? connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)
+                : connection.prepareStatement(sql);
+        prepared++;
+        statements.put(key, statement);
+        if (statements.size() > MAX_CACHED_STATEMENTS) {
+            // batches of an unusual size produce one-off SQL texts; drop the least recently used one
+            Map.Entry<String, PreparedStatement> eldest = statements.entrySet().iterator().next();
+            statements.remove(eldest.getKey());
+            eldest.getValue().close();
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,117 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLFunction;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Size-bounded cache of query results with a time to live per lookup. Concurrent requests for the same key share
+ * one database round trip. Entries are evicted least recently used first.
+ */
+public final class QueryCache<K, V> {
+    private final int maxEntries;
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public QueryCache(int maxEntries) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("Размер кэша должен быть положительным");
+        }
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached value for {@code key} if it is younger than {@code ttl}, otherwise loads it.
+     * Failed loads are not cached.
+     */
+    public V get(K key, Duration ttl, SQLFunction<K, V> loader) throws SQLException {
+        Entry<V> entry;
+        boolean owner = false;
+        synchronized (this) {
+            entry = entries.get(key);
+            if (entry != null && !entry.expired()) {
+                hits++;
+            } else {
+                misses++;
+                entry = new Entry<>(new CompletableFuture<>(), System.nanoTime() + ttl.toNanos());
+                entries.put(key, entry);
+                owner = true;
+                evictOverflow();
+            }
+        }
+        if (owner) {
+            try {
+                entry.value().complete(loader.apply(key));
+            } catch (SQLException | RuntimeException ex) {
+                synchronized (this) {
+                    entries.remove(key, entry);
+                }
+                entry.value().completeExceptionally(ex);
+            }
+        }
+        return await(entry.value());
+    }
+
+    /**
+     * Drops every entry; loads already running complete for their callers but are not kept.
+     */
+    public synchronized void invalidateAll() {
+        invalidations++;
+        entries.clear();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), hits, misses, evictions, invalidations);
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание данных прервано", ex);
+        } catch (ExecutionException | CompletionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof SQLException sql) {
+                throw sql;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new SQLException(cause);
+        }
+    }
+
+    public record Stats(int size, long hits, long misses, long evictions, long invalidations) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private record Entry<V>(CompletableFuture<V> value, long expiresAt) {
+        private boolean expired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
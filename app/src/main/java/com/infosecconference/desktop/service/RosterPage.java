@@ -0,0 +1,21 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.UserRoster;
+
+/**
+ * One page of a role roster from {@link DashboardService#loadUsersByRolePage}.
+ *
+ * @param users the page in {@code (full_name, id)} order
+ * @param next  position to pass for the following page, or {@code null} on the last page
+ */
+public record RosterPage(UserRoster users, Cursor next) {
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    /**
+     * Keyset position: the sort key of the last row already read.
+     */
+    public record Cursor(String fullName, long id) {
+    }
+}
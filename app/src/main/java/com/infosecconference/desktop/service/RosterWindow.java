@@ -0,0 +1,13 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.UserRoster;
+
+/**
+ * A stretch of a role roster from {@link DashboardService#loadRosterWindow}, with the size of the whole roster.
+ *
+ * @param total  number of users with the role
+ * @param offset position of the first row of {@code users} in the roster
+ * @param users  the rows from {@code offset} on, in {@code (full_name, id)} order
+ */
+public record RosterWindow(int total, int offset, UserRoster users) {
+}
@@ -0,0 +1,292 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.ScheduleConflict;
+import com.infosecconference.desktop.model.ScheduleSlot;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+
+/**
+ * Finds moderators and jury members booked into overlapping activities, and activities held outside the dates of
+ * their event. Every person gets an interval tree over their activities, so all overlaps are found in
+ * O(n log n + k) for n bookings and k conflicts. When activities change only the trees of the people booked into
+ * them, before or after the change, are rebuilt.
+ */
+public final class ScheduleConflicts {
+    private static final Comparator<ScheduleConflict> ORDER = Comparator
+            .comparing((ScheduleConflict conflict) -> conflict.slot().start(),
+                    Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()))
+            .thenComparingLong(conflict -> conflict.slot().activityId())
+            .thenComparingLong(conflict -> conflict.other() != null ? conflict.other().activityId() : 0);
+
+    private final Map<Long, ScheduleSlot> slots = new HashMap<>();
+    private final Map<Long, Set<Long>> activitiesByPerson = new HashMap<>();
+    private final Map<Long, List<ScheduleConflict>> overlapsByPerson = new HashMap<>();
+    private final Map<Long, ScheduleConflict> outsideByActivity = new HashMap<>();
+
+    /**
+     * Makes the checked schedule equal to {@code current}, re-checking only what changed.
+     *
+     * @return whether anything changed
+     */
+    public synchronized boolean sync(List<ScheduleSlot> current) {
+        Set<Long> affected = new HashSet<>();
+        Set<Long> present = new HashSet<>();
+        boolean changed = false;
+        for (ScheduleSlot slot : current) {
+            present.add(slot.activityId());
+            ScheduleSlot previous = slots.get(slot.activityId());
+            if (!slot.equals(previous)) {
+                replace(previous, slot, affected);
+                changed = true;
+            }
+        }
+        for (Iterator<ScheduleSlot> it = slots.values().iterator(); it.hasNext(); ) {
+            ScheduleSlot slot = it.next();
+            if (!present.contains(slot.activityId())) {
+                it.remove();
+                unregister(slot, affected);
+                changed = true;
+            }
+        }
+        affected.forEach(this::recheck);
+        return changed;
+    }
+
+    /**
+     * {@link #sync} and {@link #conflicts} under one lock, so a concurrent sync cannot slip in between and the
+     * conflicts returned are those of {@code current}.
+     */
+    public synchronized List<ScheduleConflict> syncAndGet(List<ScheduleSlot> current) {
+        sync(current);
+        return conflicts();
+    }
+
+    /**
+     * Merges the changes since the last read and returns the conflicts under one lock, like {@link #syncAndGet}:
+     * deleted activities are dropped and changed ones replaced, so only the people booked into them are rechecked.
+     * A change set that requires a reload must be answered with {@link #syncAndGet} instead.
+     */
+    public synchronized List<ScheduleConflict> applyAndGet(ChangeSet<ScheduleSlot> changes) {
+        if (changes.reloadRequired()) {
+            throw new IllegalArgumentException("Изменения расписания устарели, нужна полная загрузка");
+        }
+        Set<Long> affected = new HashSet<>();
+        for (long activityId : changes.deletedIds()) {
+            ScheduleSlot slot = slots.remove(activityId);
+            if (slot != null) {
+                unregister(slot, affected);
+            }
+        }
+        for (ScheduleSlot slot : changes.changed()) {
+            ScheduleSlot previous = slots.get(slot.activityId());
+            if (!slot.equals(previous)) {
+                replace(previous, slot, affected);
+            }
+        }
+        affected.forEach(this::recheck);
+        return conflicts();
+    }
+
+    /**
+     * Number of activities checked.
+     */
+    public synchronized int size() {
+        return slots.size();
+    }
+
+    /**
+     * Adds or replaces one activity.
+     */
+    public synchronized void put(ScheduleSlot slot) {
+        Set<Long> affected = new HashSet<>();
+        replace(slots.get(slot.activityId()), slot, affected);
+        affected.forEach(this::recheck);
+    }
+
+    public synchronized void remove(long activityId) {
+        ScheduleSlot slot = slots.remove(activityId);
+        if (slot != null) {
+            Set<Long> affected = new HashSet<>();
+            unregister(slot, affected);
+            affected.forEach(this::recheck);
+        }
+    }
+
+    /**
+     * All current conflicts, ordered by the start of the (earlier) activity.
+     */
+    public synchronized List<ScheduleConflict> conflicts() {
+        List<ScheduleConflict> conflicts = new ArrayList<>(outsideByActivity.values());
+        overlapsByPerson.values().forEach(conflicts::addAll);
+        conflicts.sort(ORDER);
+        return conflicts;
+    }
+
+    private void replace(ScheduleSlot previous, ScheduleSlot slot, Set<Long> affected) {
+        if (previous != null) {
+            unregister(previous, affected);
+        }
+        slots.put(slot.activityId(), slot);
+        for (ScheduleSlot.Assignee assignee : slot.assignees()) {
+            activitiesByPerson.computeIfAbsent(assignee.userId(), id -> new HashSet<>()).add(slot.activityId());
+            affected.add(assignee.userId());
+        }
+        if (outsideEvent(slot)) {
+            outsideByActivity.put(slot.activityId(),
+                    new ScheduleConflict(ScheduleConflict.Kind.OUTSIDE_EVENT, slot, null, null));
+        }
+    }
+
+    private void unregister(ScheduleSlot slot, Set<Long> affected) {
+        outsideByActivity.remove(slot.activityId());
+        for (ScheduleSlot.Assignee assignee : slot.assignees()) {
+            Set<Long> activities = activitiesByPerson.get(assignee.userId());
+            if (activities != null) {
+                activities.remove(slot.activityId());
+            }
+            affected.add(assignee.userId());
+        }
+    }
+
+    private void recheck(long userId) {
+        Set<Long> activityIds = activitiesByPerson.getOrDefault(userId, Set.of());
+        List<ScheduleSlot> timed = new ArrayList<>();
+        for (long activityId : activityIds) {
+            ScheduleSlot slot = slots.get(activityId);
+            if (slot.start() != null && slot.end() != null && slot.end().isAfter(slot.start())) {
+                timed.add(slot);
+            }
+        }
+        if (activityIds.isEmpty()) {
+            activitiesByPerson.remove(userId);
+        }
+        if (timed.size() < 2) {
+            overlapsByPerson.remove(userId);
+            return;
+        }
+        IntervalTree tree = new IntervalTree(timed);
+        List<ScheduleConflict> overlaps = new ArrayList<>();
+        for (int i = 0; i < tree.size(); i++) {
+            int first = i;
+            ScheduleSlot slot = tree.slot(i);
+            tree.overlapping(tree.start(i), tree.end(i), j -> {
+                // each pair once: the other activity starts later, or at the same time with a later position
+                if (j > first) {
+                    overlaps.add(new ScheduleConflict(ScheduleConflict.Kind.OVERLAP, slot, tree.slot(j),
+                            assignee(slot, userId)));
+                }
+            });
+        }
+        if (overlaps.isEmpty()) {
+            overlapsByPerson.remove(userId);
+        } else {
+            overlapsByPerson.put(userId, overlaps);
+        }
+    }
+
+    private static ScheduleSlot.Assignee assignee(ScheduleSlot slot, long userId) {
+        for (ScheduleSlot.Assignee assignee : slot.assignees()) {
+            if (assignee.userId() == userId) {
+                return assignee;
+            }
+        }
+        throw new IllegalStateException("Участник " + userId + " не назначен на активность " + slot.activityId());
+    }
+
+    private static boolean outsideEvent(ScheduleSlot slot) {
+        if (slot.start() == null) {
+            return false;
+        }
+        LocalDate first = slot.start().toLocalDate();
+        LocalDate last = slot.end() != null ? slot.end().toLocalDate() : first;
+        return (slot.eventStart() != null && first.isBefore(slot.eventStart()))
+                || (slot.eventEnd() != null && last.isAfter(slot.eventEnd()));
+    }
+
+    /**
+     * Static interval tree over one person's activities: the slots sorted by start form an implicit balanced
+     * binary tree (the middle of every range is its root), and each root records the latest end in its subtree,
+     * so whole subtrees that finish before the queried interval are skipped.
+     */
+    private static final class IntervalTree {
+        private final ScheduleSlot[] slots;
+        private final long[] starts;
+        private final long[] ends;
+        private final long[] maxEnds;
+
+        private IntervalTree(List<ScheduleSlot> unsorted) {
+            slots = unsorted.toArray(new ScheduleSlot[0]);
+            Arrays.sort(slots, Comparator.comparing(ScheduleSlot::start).thenComparingLong(ScheduleSlot::activityId));
+            starts = new long[slots.length];
+            ends = new long[slots.length];
+            maxEnds = new long[slots.length];
+            for (int i = 0; i < slots.length; i++) {
+                starts[i] = slots[i].start().toEpochSecond(ZoneOffset.UTC);
+                ends[i] = slots[i].end().toEpochSecond(ZoneOffset.UTC);
+            }
+            build(0, slots.length);
+        }
+
+        private int size() {
+            return slots.length;
+        }
+
+        private ScheduleSlot slot(int index) {
+            return slots[index];
+        }
+
+        private long start(int index) {
+            return starts[index];
+        }
+
+        private long end(int index) {
+            return ends[index];
+        }
+
+        /**
+         * Reports the index of every interval overlapping {@code [start, end)}.
+         */
+        private void overlapping(long start, long end, IntConsumer consumer) {
+            query(0, slots.length, start, end, consumer);
+        }
+
+        private long build(int low, int high) {
+            if (low >= high) {
+                return Long.MIN_VALUE;
+            }
+            int middle = (low + high) >>> 1;
+            long maxEnd = Math.max(ends[middle], Math.max(build(low, middle), build(middle + 1, high)));
+            maxEnds[middle] = maxEnd;
+            return maxEnd;
+        }
+
+        private void query(int low, int high, long start, long end, IntConsumer consumer) {
+            if (low >= high) {
+                return;
+            }
+            int middle = (low + high) >>> 1;
+            if (maxEnds[middle] <= start) {
+                return;
+            }
+            query(low, middle, start, end, consumer);
+            if (starts[middle] < end) {
+                if (ends[middle] > start) {
+                    consumer.accept(middle);
+                }
+                query(middle + 1, high, start, end, consumer);
+            }
+        }
+    }
+}
@@ -0,0 +1,473 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.Activity;
+import com.infosecconference.desktop.model.ConferenceUser;
+import com.infosecconference.desktop.model.Event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * In-memory substring search over people, events and activities. Searchable text is lower-cased with {@code ё}
+ * folded to {@code е} and split into words; every word is indexed by its three-character substrings and by its
+ * first two characters, so a query word of two characters matches word beginnings and a longer one matches
+ * anywhere inside a word. Every query word must match.
+ * <p>
+ * Entries live in named sections (a role roster, the events, the schedule). {@link #sync} replaces a section by
+ * comparing the new entries with the indexed ones, and {@link #update} applies known changes to it, so only added,
+ * changed and removed entries touch the index.
+ * Replaced entries leave dead slots behind that are compacted once they outnumber the live ones.
+ */
+public final class SearchIndex {
+    private static final char WORD_START = '\u0001';
+    private static final int MIN_QUERY_LENGTH = 2;
+    private static final int COMPACT_THRESHOLD = 50_000;
+
+    private final GramTable postings = new GramTable();
+    private final Map<String, Map<Long, Integer>> slotsById = new HashMap<>();
+    private final BitSet dead = new BitSet();
+    private String[] sections = new String[1024];
+    private long[] ids = new long[1024];
+    private String[] titles = new String[1024];
+    private String[] details = new String[1024];
+    private String[] texts = new String[1024];
+    private int[] hashes = new int[1024];
+    private int slots;
+    private int deadCount;
+
+    /**
+     * Makes {@code section} contain exactly {@code entries}.
+     *
+     * @return number of entries added, changed or removed
+     */
+    public synchronized int sync(String section, List<Entry> entries) {
+        Map<Long, Integer> current = slotsById.computeIfAbsent(section, key -> new HashMap<>());
+        Set<Long> present = new HashSet<>();
+        int touched = 0;
+        for (Entry entry : entries) {
+            present.add(entry.id());
+            if (put(section, current, entry)) {
+                touched++;
+            }
+        }
+        for (Iterator<Map.Entry<Long, Integer>> it = current.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Long, Integer> indexed = it.next();
+            if (!present.contains(indexed.getKey())) {
+                kill(indexed.getValue());
+                it.remove();
+                touched++;
+            }
+        }
+        compactIfSparse();
+        return touched;
+    }
+
+    /**
+     * Adds or replaces {@code changed} in {@code section} and removes the entries with the {@code removed} ids,
+     * leaving the rest of the section as it is.
+     *
+     * @return number of entries added, changed or removed
+     */
+    public synchronized int update(String section, List<Entry> changed, Set<Long> removed) {
+        Map<Long, Integer> current = slotsById.computeIfAbsent(section, key -> new HashMap<>());
+        int touched = 0;
+        for (long id : removed) {
+            Integer slot = current.remove(id);
+            if (slot != null) {
+                kill(slot);
+                touched++;
+            }
+        }
+        for (Entry entry : changed) {
+            if (put(section, current, entry)) {
+                touched++;
+            }
+        }
+        compactIfSparse();
+        return touched;
+    }
+
+    /**
+     * Number of live entries in one section.
+     */
+    public synchronized int size(String section) {
+        return slotsById.getOrDefault(section, Map.of()).size();
+    }
+
+    /**
+     * Indexes {@code entry} unless the section already holds it unchanged.
+     *
+     * @return whether the index changed
+     */
+    private boolean put(String section, Map<Long, Integer> current, Entry entry) {
+        Integer slot = current.get(entry.id());
+        int hash = entry.hashCode();
+        String text = text(entry);
+        // the hash only rules changes in; equal hashes are confirmed on what the index keeps
+        if (slot != null && hashes[slot] == hash
+                && Objects.equals(titles[slot], entry.title())
+                && Objects.equals(details[slot], entry.detail())
+                && texts[slot].equals(text)) {
+            return false;
+        }
+        if (slot != null) {
+            kill(slot);
+        }
+        current.put(entry.id(), add(section, entry.id(), entry.title(), entry.detail(), text, hash));
+        return true;
+    }
+
+    private void compactIfSparse() {
+        if (deadCount > COMPACT_THRESHOLD && deadCount > slots - deadCount) {
+            compact();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit} entries matching every word of the query, in indexing order.
+     */
+    public synchronized List<Hit> search(String query, int limit) {
+        List<String> words = words(fold(query));
+        words.removeIf(word -> word.length() < MIN_QUERY_LENGTH);
+        if (words.isEmpty()) {
+            return List.of();
+        }
+        List<Postings> lists = new ArrayList<>();
+        for (String word : words) {
+            for (long gram : grams(word)) {
+                Postings list = postings.get(gram);
+                if (list == null) {
+                    return List.of();
+                }
+                if (!lists.contains(list)) {
+                    lists.add(list);
+                }
+            }
+        }
+        lists.sort((left, right) -> Integer.compare(left.size, right.size));
+
+        List<Hit> hits = new ArrayList<>();
+        Postings rarest = lists.get(0);
+        int[] cursors = new int[lists.size()];
+        candidates:
+        for (int i = 0; i < rarest.size && hits.size() < limit; i++) {
+            int slot = rarest.slots[i];
+            if (dead.get(slot)) {
+                continue;
+            }
+            for (int l = 1; l < lists.size(); l++) {
+                cursors[l] = lists.get(l).seek(slot, cursors[l]);
+                if (cursors[l] == lists.get(l).size) {
+                    break candidates;
+                }
+                if (lists.get(l).slots[cursors[l]] != slot) {
+                    continue candidates;
+                }
+            }
+            // the grams only say the pieces occur; the words themselves must too
+            if (matchesAll(texts[slot], words)) {
+                hits.add(new Hit(sections[slot], ids[slot], titles[slot], details[slot]));
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Number of live entries.
+     */
+    public synchronized int size() {
+        return slots - deadCount;
+    }
+
+    /**
+     * Lower-cases the text and folds {@code ё} into {@code е}.
+     */
+    public static String fold(String text) {
+        return text.toLowerCase(Locale.ROOT).replace('ё', 'е');
+    }
+
+    private int add(String section, long id, String title, String detail, String text, int hash) {
+        if (slots == ids.length) {
+            grow();
+        }
+        int slot = slots++;
+        sections[slot] = section;
+        ids[slot] = id;
+        titles[slot] = title;
+        details[slot] = detail;
+        texts[slot] = text;
+        hashes[slot] = hash;
+        int start = 0;
+        while (start < text.length()) {
+            int end = text.indexOf(' ', start);
+            if (end < 0) {
+                end = text.length();
+            }
+            if (end - start >= 2) {
+                postings.add(gram(WORD_START, text.charAt(start), text.charAt(start + 1)), slot);
+            }
+            for (int i = start; i + 3 <= end; i++) {
+                postings.add(gram(text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)), slot);
+            }
+            start = end + 1;
+        }
+        return slot;
+    }
+
+    private void kill(int slot) {
+        dead.set(slot);
+        deadCount++;
+        // keep the strings of dead entries from outliving them until the next compaction
+        titles[slot] = null;
+        details[slot] = null;
+        texts[slot] = null;
+    }
+
+    private void compact() {
+        int total = slots;
+        String[] oldSections = sections;
+        long[] oldIds = ids;
+        String[] oldTitles = titles;
+        String[] oldDetails = details;
+        String[] oldTexts = texts;
+        int[] oldHashes = hashes;
+        postings.clear();
+        slotsById.clear();
+        dead.clear();
+        slots = 0;
+        deadCount = 0;
+        int capacity = Math.max(1024, Integer.highestOneBit(Math.max(1, total)) * 2);
+        sections = new String[capacity];
+        ids = new long[capacity];
+        titles = new String[capacity];
+        details = new String[capacity];
+        texts = new String[capacity];
+        hashes = new int[capacity];
+        for (int slot = 0; slot < total; slot++) {
+            if (oldTexts[slot] == null) {
+                continue;
+            }
+            int moved = add(oldSections[slot], oldIds[slot], oldTitles[slot], oldDetails[slot], oldTexts[slot],
+                    oldHashes[slot]);
+            slotsById.computeIfAbsent(oldSections[slot], key -> new HashMap<>()).put(oldIds[slot], moved);
+        }
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        sections = Arrays.copyOf(sections, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        titles = Arrays.copyOf(titles, capacity);
+        details = Arrays.copyOf(details, capacity);
+        texts = Arrays.copyOf(texts, capacity);
+        hashes = Arrays.copyOf(hashes, capacity);
+    }
+
+    private static String text(Entry entry) {
+        return String.join(" ", words(fold(String.join(" ", entry.terms()))));
+    }
+
+    private static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean letter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(text.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    /**
+     * Grams a query word needs: a two-character word is looked up as a word start.
+     */
+    private static List<Long> grams(String word) {
+        if (word.length() == 2) {
+            return List.of(gram(WORD_START, word.charAt(0), word.charAt(1)));
+        }
+        List<Long> grams = new ArrayList<>();
+        for (int i = 0; i + 3 <= word.length(); i++) {
+            grams.add(gram(word.charAt(i), word.charAt(i + 1), word.charAt(i + 2)));
+        }
+        return grams;
+    }
+
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 32) | ((long) second << 16) | third;
+    }
+
+    private static boolean matchesAll(String text, List<String> words) {
+        for (String word : words) {
+            if (!matches(text, word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String text, String word) {
+        if (word.length() > 2) {
+            return text.contains(word);
+        }
+        return text.startsWith(word) || text.contains(" " + word);
+    }
+
+    /**
+     * Searchable entry; {@code terms} are the texts it is found by.
+     */
+    public record Entry(long id, String title, String detail, List<String> terms) {
+        public static Entry of(ConferenceUser user) {
+            String phoneDigits = user.phone() != null ? user.phone().replaceAll("\\D", "") : null;
+            return new Entry(user.id(), user.fullName(), join(user.organization(), user.email()),
+                    terms(user.fullName(), user.email(), user.phone(), phoneDigits, user.organization()));
+        }
+
+        public static Entry of(Event event) {
+            String place = event.city() != null ? event.city().name() : event.venue();
+            return new Entry(event.id(), event.title(), place, terms(event.title()));
+        }
+
+        public static Entry of(Activity activity) {
+            String eventTitle = activity.event() != null ? activity.event().title() : null;
+            return new Entry(activity.id(), activity.name(), eventTitle, terms(activity.name()));
+        }
+
+        public static <T> List<Entry> all(List<T> values, Function<T, Entry> toEntry) {
+            List<Entry> entries = new ArrayList<>(values.size());
+            for (T value : values) {
+                entries.add(toEntry.apply(value));
+            }
+            return entries;
+        }
+
+        private static List<String> terms(String... values) {
+            return Arrays.stream(values).filter(Objects::nonNull).toList();
+        }
+
+        private static String join(String first, String second) {
+            if (first == null || first.isBlank()) {
+                return second;
+            }
+            return second == null || second.isBlank() ? first : first + ", " + second;
+        }
+    }
+
+    public record Hit(String section, long id, String title, String detail) {
+    }
+
+    /**
+     * Slots containing one gram, in increasing order because slots are only ever appended.
+     */
+    private static final class Postings {
+        private int[] slots = new int[4];
+        private int size;
+
+        private void add(int slot) {
+            if (size > 0 && slots[size - 1] == slot) {
+                // the gram occurs more than once in the same entry
+                return;
+            }
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        /**
+         * Index of the first slot at or after {@code from} that is not below {@code slot}. Gallops forward first,
+         * because successive lookups move through the list in order and usually land close by.
+         */
+        private int seek(int slot, int from) {
+            int step = 1;
+            int high = from;
+            while (high < size && slots[high] < slot) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int found = Arrays.binarySearch(slots, from, Math.min(high + 1, size), slot);
+            return found >= 0 ? found : -found - 1;
+        }
+    }
+
+    /**
+     * Open-addressing map from an encoded gram to its postings, so the millions of lookups made while indexing do
+     * not box their keys.
+     */
+    private static final class GramTable {
+        private long[] keys = new long[1 << 16];
+        private Postings[] values = new Postings[1 << 16];
+        private int size;
+
+        private Postings get(long gram) {
+            int mask = keys.length - 1;
+            for (int i = index(gram, mask); values[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == gram) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        private void add(long gram, int slot) {
+            int mask = keys.length - 1;
+            int i = index(gram, mask);
+            while (values[i] != null && keys[i] != gram) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == null) {
+                keys[i] = gram;
+                values[i] = new Postings();
+                if (++size * 2 > keys.length) {
+                    resize();
+                    add(gram, slot);
+                    return;
+                }
+            }
+            values[i].add(slot);
+        }
+
+        private void clear() {
+            Arrays.fill(keys, 0);
+            Arrays.fill(values, null);
+            size = 0;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            Postings[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new Postings[oldValues.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldValues[j] != null) {
+                    int i = index(oldKeys[j], mask);
+                    while (values[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    values[i] = oldValues[j];
+                }
+            }
+        }
+
+        private static int index(long gram, int mask) {
+            long mixed = gram * 0x9E3779B97F4A7C15L;
+            return (int) (mixed >>> 32) & mask;
+        }
+    }
+}
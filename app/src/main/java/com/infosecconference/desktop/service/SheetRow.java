@@ -0,0 +1,35 @@
+package com.infosecconference.desktop.service;
+
+/**
+ * Single spreadsheet row with every cell rendered as text and addressed by zero-based column index.
+ */
+public final class SheetRow {
+    private final int rowNumber;
+    private final String[] cells;
+
+    public SheetRow(int rowNumber, String[] cells) {
+        this.rowNumber = rowNumber;
+        this.cells = cells;
+    }
+
+    /**
+     * One-based row number as shown in Excel.
+     */
+    public int rowNumber() {
+        return rowNumber;
+    }
+
+    public int size() {
+        return cells.length;
+    }
+
+    /**
+     * Returns the trimmed cell value or an empty string for missing cells, mirroring {@code DataFormatter} behaviour.
+     */
+    public String cell(int column) {
+        if (column < 0 || column >= cells.length || cells[column] == null) {
+            return "";
+        }
+        return cells[column].trim();
+    }
+}
@@ -0,0 +1,100 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.model.SummarySnapshot;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Access to the single-row {@code conference_summary} table behind the dashboard cards. The import recounts it
+ * as the last step of its own transaction, so readers get the totals with one primary key lookup instead of seven
+ * scans. Writes that bypass the import ({@code seed_data.sql}, manual edits) leave the counters behind until
+ * {@code --recompute-summary} runs; the window notices the difference after a full reload and says so.
+ */
+public final class SummaryCounters {
+    private static final int MISSING_TABLE = 1146;
+
+    private static final String COUNTS = """
+            SELECT (SELECT COUNT(*) FROM events),
+                   (SELECT COUNT(*) FROM activities),
+                   (SELECT COUNT(*) FROM conference_users WHERE role = 'PARTICIPANT'),
+                   (SELECT COUNT(*) FROM conference_users WHERE role = 'MODERATOR'),
+                   (SELECT COUNT(*) FROM conference_users WHERE role = 'JURY'),
+                   (SELECT COUNT(*) FROM conference_users WHERE role = 'ORGANIZER'),
+                   (SELECT COUNT(*) FROM teams)
+            """;
+
+    private SummaryCounters() {
+    }
+
+    /**
+     * Returns the stored counters, or {@code null} when the row or the table does not exist yet.
+     */
+    public static SummarySnapshot read(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("""
+                SELECT events, activities, participants, moderators, jury, organizers, teams
+                FROM conference_summary
+                WHERE id = 1
+                """);
+             ResultSet rs = statement.executeQuery()) {
+            return rs.next() ? snapshot(rs) : null;
+        } catch (SQLException ex) {
+            if (ex.getErrorCode() == MISSING_TABLE) {
+                return null;
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Counts the rows directly, in a single round trip.
+     */
+    public static SummarySnapshot count(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(COUNTS);
+             ResultSet rs = statement.executeQuery()) {
+            rs.next();
+            return snapshot(rs);
+        }
+    }
+
+    /**
+     * Recounts the rows and stores the result; runs in the caller's transaction.
+     */
+    public static Recount recompute(Connection connection) throws SQLException {
+        SummarySnapshot stored = read(connection);
+        SummarySnapshot actual = count(connection);
+        try (PreparedStatement statement = connection.prepareStatement("""
+                INSERT INTO conference_summary (id, events, activities, participants, moderators, jury, organizers, teams)
+                VALUES (1, ?, ?, ?, ?, ?, ?, ?)
+                ON DUPLICATE KEY UPDATE events = VALUES(events), activities = VALUES(activities),
+                    participants = VALUES(participants), moderators = VALUES(moderators), jury = VALUES(jury),
+                    organizers = VALUES(organizers), teams = VALUES(teams), recomputed_at = NOW()
+                """)) {
+            statement.setLong(1, actual.events());
+            statement.setLong(2, actual.activities());
+            statement.setLong(3, actual.participants());
+            statement.setLong(4, actual.moderators());
+            statement.setLong(5, actual.jury());
+            statement.setLong(6, actual.organizers());
+            statement.setLong(7, actual.teams());
+            statement.executeUpdate();
+        }
+        return new Recount(stored, actual);
+    }
+
+    private static SummarySnapshot snapshot(ResultSet rs) throws SQLException {
+        return new SummarySnapshot(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4),
+                rs.getLong(5), rs.getLong(6), rs.getLong(7));
+    }
+
+    /**
+     * Counters before and after a recount; {@code stored} is {@code null} when there was no row.
+     */
+    public record Recount(SummarySnapshot stored, SummarySnapshot actual) {
+        public boolean drifted() {
+            return !actual.equals(stored);
+        }
+    }
+}
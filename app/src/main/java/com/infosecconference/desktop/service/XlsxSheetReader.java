@@ -0,0 +1,329 @@
+package com.infosecconference.desktop.service;
+
+import com.infosecconference.desktop.util.SQLConsumer;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParser;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Streams the first worksheet of an {@code .xlsx} file row by row with SAX instead of building a workbook DOM.
+ * Only the shared strings table is kept in memory, so heap use does not grow with the number of rows.
+ */
+public final class XlsxSheetReader {
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String DEFAULT_SHEET = "xl/worksheets/sheet1.xml";
+    private static final String DEFAULT_SHARED_STRINGS = "xl/sharedStrings.xml";
+    private static final LocalDate EXCEL_EPOCH = LocalDate.of(1899, 12, 30);
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final SAXParserFactory PARSER_FACTORY = createParserFactory();
+
+    private XlsxSheetReader() {
+    }
+
+    public static void readFirstSheet(Path path, SQLConsumer<SheetRow> consumer) throws IOException, SQLException {
+        if (!Files.exists(path)) {
+            throw new IOException("Файл не найден: " + path);
+        }
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            Map<String, String> relationships = readWorkbookRelationships(zip);
+            String sheetEntry = resolveFirstSheet(zip, relationships);
+            List<String> sharedStrings = readSharedStrings(zip, relationships);
+
+            ZipEntry entry = zip.getEntry(sheetEntry);
+            if (entry == null) {
+                throw new IOException("В книге " + path.getFileName() + " не найден лист " + sheetEntry);
+            }
+            try (InputStream stream = zip.getInputStream(entry)) {
+                PARSER_FACTORY.newSAXParser().parse(stream, new SheetHandler(sharedStrings, consumer));
+            } catch (RowConsumerException ex) {
+                throw ex.sqlException;
+            } catch (SAXException | ParserConfigurationException ex) {
+                throw new IOException("Не удалось разобрать лист книги " + path.getFileName() + ": " + ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Name of the first worksheet as shown on its tab, or {@code null} when the workbook does not declare one.
+     */
+    public static String firstSheetName(Path path) throws IOException {
+        try (ZipFile zip = new ZipFile(path.toFile())) {
+            ZipEntry entry = zip.getEntry("xl/workbook.xml");
+            if (entry == null) {
+                return null;
+            }
+            String[] name = new String[1];
+            try (InputStream stream = zip.getInputStream(entry)) {
+                parse(stream, new DefaultHandler() {
+                    @Override
+                    public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                        if (name[0] == null && "sheet".equals(localName)) {
+                            name[0] = attributes.getValue("name");
+                        }
+                    }
+                });
+            }
+            return name[0];
+        }
+    }
+
+    /**
+     * Converts an Excel serial date (1900 date system) to a local date-time, including the 1900 leap year quirk.
+     */
+    public static LocalDateTime toLocalDateTime(double serial) {
+        long wholeDays = (long) Math.floor(serial);
+        long millis = Math.round((serial - wholeDays) * MILLIS_PER_DAY);
+        LocalDate base = wholeDays < 61 ? EXCEL_EPOCH.plusDays(1) : EXCEL_EPOCH;
+        return base.plusDays(wholeDays).atStartOfDay().plusNanos(millis * 1_000_000L);
+    }
+
+    private static Map<String, String> readWorkbookRelationships(ZipFile zip) throws IOException {
+        Map<String, String> targets = new HashMap<>();
+        ZipEntry entry = zip.getEntry("xl/_rels/workbook.xml.rels");
+        if (entry == null) {
+            return targets;
+        }
+        try (InputStream stream = zip.getInputStream(entry)) {
+            parse(stream, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("Relationship".equals(localName)) {
+                        String id = attributes.getValue("Id");
+                        String target = attributes.getValue("Target");
+                        String type = attributes.getValue("Type");
+                        if (id != null && target != null) {
+                            targets.put(id, toEntryName(target));
+                        }
+                        if (type != null && type.endsWith("/sharedStrings") && target != null) {
+                            targets.put(DEFAULT_SHARED_STRINGS, toEntryName(target));
+                        }
+                    }
+                }
+            });
+        }
+        return targets;
+    }
+
+    private static String resolveFirstSheet(ZipFile zip, Map<String, String> relationships) throws IOException {
+        ZipEntry entry = zip.getEntry("xl/workbook.xml");
+        if (entry == null) {
+            return DEFAULT_SHEET;
+        }
+        String[] firstSheetId = new String[1];
+        try (InputStream stream = zip.getInputStream(entry)) {
+            parse(stream, new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if (firstSheetId[0] == null && "sheet".equals(localName)) {
+                        firstSheetId[0] = attributes.getValue(RELATIONSHIPS_NS, "id");
+                    }
+                }
+            });
+        }
+        String target = firstSheetId[0] != null ? relationships.get(firstSheetId[0]) : null;
+        return target != null ? target : DEFAULT_SHEET;
+    }
+
+    private static List<String> readSharedStrings(ZipFile zip, Map<String, String> relationships) throws IOException {
+        List<String> strings = new ArrayList<>();
+        ZipEntry entry = zip.getEntry(relationships.getOrDefault(DEFAULT_SHARED_STRINGS, DEFAULT_SHARED_STRINGS));
+        if (entry == null) {
+            return strings;
+        }
+        try (InputStream stream = zip.getInputStream(entry)) {
+            parse(stream, new DefaultHandler() {
+                private final StringBuilder text = new StringBuilder();
+                private boolean inText;
+                private boolean inPhonetic;
+
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    switch (localName) {
+                        case "si" -> text.setLength(0);
+                        case "rPh" -> inPhonetic = true;
+                        case "t" -> inText = !inPhonetic;
+                        default -> {
+                        }
+                    }
+                }
+
+                @Override
+                public void endElement(String uri, String localName, String qName) {
+                    switch (localName) {
+                        case "si" -> strings.add(text.toString());
+                        case "rPh" -> inPhonetic = false;
+                        case "t" -> inText = false;
+                        default -> {
+                        }
+                    }
+                }
+
+                @Override
+                public void characters(char[] ch, int start, int length) {
+                    if (inText) {
+                        text.append(ch, start, length);
+                    }
+                }
+            });
+        }
+        return strings;
+    }
+
+    private static String toEntryName(String target) {
+        if (target.startsWith("/")) {
+            return target.substring(1);
+        }
+        return target.startsWith("xl/") ? target : "xl/" + target;
+    }
+
+    private static void parse(InputStream stream, DefaultHandler handler) throws IOException {
+        try {
+            SAXParser parser = PARSER_FACTORY.newSAXParser();
+            parser.parse(stream, handler);
+        } catch (SAXException | ParserConfigurationException ex) {
+            throw new IOException("Не удалось разобрать XML книги: " + ex.getMessage(), ex);
+        }
+    }
+
+    private static SAXParserFactory createParserFactory() {
+        SAXParserFactory factory = SAXParserFactory.newInstance();
+        factory.setNamespaceAware(true);
+        try {
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+        } catch (ParserConfigurationException | SAXException ex) {
+            // Older parsers may not support the hardening flags; workbook XML never carries a DTD anyway.
+        }
+        return factory;
+    }
+
+    private static int columnIndex(String reference) {
+        int column = 0;
+        for (int i = 0; i < reference.length(); i++) {
+            char ch = reference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static final class SheetHandler extends DefaultHandler {
+        private final List<String> sharedStrings;
+        private final SQLConsumer<SheetRow> consumer;
+        private final List<String> cells = new ArrayList<>();
+        private final StringBuilder value = new StringBuilder();
+
+        private int rowNumber;
+        private int column;
+        private String cellType;
+        private boolean capturing;
+
+        private SheetHandler(List<String> sharedStrings, SQLConsumer<SheetRow> consumer) {
+            this.sharedStrings = sharedStrings;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row" -> {
+                    String reference = attributes.getValue("r");
+                    rowNumber = reference != null ? Integer.parseInt(reference) : rowNumber + 1;
+                    cells.clear();
+                    column = -1;
+                }
+                case "c" -> {
+                    String reference = attributes.getValue("r");
+                    column = reference != null ? columnIndex(reference) : column + 1;
+                    cellType = attributes.getValue("t");
+                    value.setLength(0);
+                }
+                case "v", "t" -> capturing = true;
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            switch (localName) {
+                case "v", "t" -> capturing = false;
+                case "c" -> {
+                    while (cells.size() <= column) {
+                        cells.add(null);
+                    }
+                    cells.set(column, resolveValue());
+                }
+                case "row" -> {
+                    try {
+                        consumer.accept(new SheetRow(rowNumber, cells.toArray(new String[0])));
+                    } catch (SQLException ex) {
+                        throw new RowConsumerException(ex);
+                    }
+                }
+                default -> {
+                }
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                value.append(ch, start, length);
+            }
+        }
+
+        private String resolveValue() {
+            String raw = value.toString();
+            if (cellType == null) {
+                return raw;
+            }
+            return switch (cellType) {
+                case "s" -> {
+                    try {
+                        int index = Integer.parseInt(raw.trim());
+                        yield index >= 0 && index < sharedStrings.size() ? sharedStrings.get(index) : "";
+                    } catch (NumberFormatException ex) {
+                        yield "";
+                    }
+                }
+                case "b" -> "1".equals(raw.trim()) ? "TRUE" : "FALSE";
+                default -> raw;
+            };
+        }
+    }
+
+    /**
+     * Carries a consumer failure through the SAX callback chain so it can be rethrown as the original SQL error.
+     */
+    private static final class RowConsumerException extends SAXException {
+        private final SQLException sqlException;
+
+        private RowConsumerException(SQLException sqlException) {
+            super(sqlException);
+            this.sqlException = sqlException;
+        }
+    }
+}
@@ -4,98 +4,377 @@ import com.infosecconference.desktop.config.AppConfiguration;
 import com.infosecconference.desktop.config.BrandingTheme;
 import com.infosecconference.desktop.model.Activity;
 import com.infosecconference.desktop.model.ConferenceUser;
+import com.infosecconference.desktop.model.DashboardData;
 import com.infosecconference.desktop.model.Event;
+import com.infosecconference.desktop.model.ScheduleConflict;
+import com.infosecconference.desktop.model.ScheduleSlot;
 import com.infosecconference.desktop.model.SummarySnapshot;
+import com.infosecconference.desktop.model.UserRoster;
+import com.infosecconference.desktop.service.ChangeSet;
 import com.infosecconference.desktop.service.DashboardService;
+import com.infosecconference.desktop.service.DashboardSnapshotStore;
+import com.infosecconference.desktop.service.ImageService;
+import com.infosecconference.desktop.service.RosterWindow;
+import com.infosecconference.desktop.service.ScheduleConflicts;
+import com.infosecconference.desktop.service.SearchIndex;
+import com.infosecconference.desktop.util.SQLSupplier;
+import com.infosecconference.desktop.util.StartupTimer;
 
+import javax.swing.AbstractAction;
 import javax.swing.BorderFactory;
 import javax.swing.ImageIcon;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
-import javax.swing.JOptionPane;
+import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.KeyStroke;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
-import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableColumn;
 import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GridLayout;
-import java.awt.Image;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import java.awt.event.ActionEvent;
+import java.awt.event.KeyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 public class MainWindow extends JFrame {
     private final AppConfiguration configuration;
     private final BrandingTheme theme;
     private final DashboardService dashboardService;
+    private final DashboardSnapshotStore snapshotStore;
+    private final ImageService imageService;
+    private final StartupTimer startup;
 
-    private final SummaryPanel summaryPanel;
-    private final EventsPanel eventsPanel;
-    private final PeoplePanel peoplePanel;
-    private final SchedulePanel schedulePanel;
+    private final JTabbedPane tabs = new JTabbedPane();
+    private final List<LazyTab> lazyTabs = new ArrayList<>();
+    private SummaryPanel summaryPanel;
+    private EventsPanel eventsPanel;
+    private PeoplePanel peoplePanel;
+    private SchedulePanel schedulePanel;
+    private SearchPanel searchPanel;
+    private final ScheduleConflicts scheduleConflicts = new ScheduleConflicts();
+    private final JLabel statusLabel = new JLabel();
+    private final ExecutorService refreshExecutor;
+    private final ExecutorService pageExecutor;
+    private final ExecutorService searchExecutor;
+    private final RefreshScheduler refreshScheduler;
+    private final Map<Dataset, Integer> refreshGenerations = new EnumMap<>(Dataset.class);
+    private final Set<Dataset> wanted = EnumSet.noneOf(Dataset.class);
+    private boolean started;
+    private boolean painted;
+    private final Map<Dataset, LocalDateTime> watermarks = new EnumMap<>(Dataset.class);
+
+    // what the panels show, kept for tabs built later, incremental merges and the snapshot
+    private SummarySnapshot summary;
+    private List<Event> events;
+    private List<Activity> activities;
+    private final Map<String, RosterWindow> rosters = new LinkedHashMap<>();
+    // the first rows of every roster, for the snapshot
+    private final Map<String, List<ConferenceUser>> rosterHeads = new LinkedHashMap<>();
+    // people in the search index by role, for the summary check
+    private final Map<String, Integer> indexedPeople = new HashMap<>();
+    private List<ScheduleConflict> conflicts;
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("d MMMM yyyy", new Locale("ru"));
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter.ofPattern("d MMMM HH:mm", new Locale("ru"));
+    private static final Color ERROR_COLOR = new Color(0xB0, 0x00, 0x20);
+    private static final int REFRESH_QUERIES = 8;
+    private static final int UPCOMING_ACTIVITIES = 12;
+    private static final int LOGO_SIZE = 64;
+    private static final int PHOTO_SIZE = 40;
+    private static final int EVENT_IMAGE_SIZE = 48;
 
     public MainWindow(AppConfiguration configuration,
                       BrandingTheme theme,
-                      DashboardService dashboardService) {
+                      DashboardService dashboardService,
+                      DashboardSnapshotStore snapshotStore,
+                      ImageService imageService,
+                      CompletableFuture<BufferedImage> logo,
+                      StartupTimer startup) {
         super("CyberShield Desktop");
         this.configuration = configuration;
         this.theme = theme;
         this.dashboardService = dashboardService;
+        this.snapshotStore = snapshotStore;
+        this.imageService = imageService;
+        this.startup = startup;
+        // one thread per dashboard query, but never more than the connection pool can serve at once
+        AtomicInteger threads = new AtomicInteger();
+        this.refreshExecutor = Executors.newFixedThreadPool(
+                Math.min(REFRESH_QUERIES, configuration.poolSettings().maxSize()),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-refresh-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.pageExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "table-pages");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.searchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.refreshScheduler = new RefreshScheduler(configuration.refreshSettings(),
+                () -> refreshData(EnumSet.copyOf(wanted)));
 
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         setMinimumSize(new Dimension(1100, 720));
         setLocationRelativeTo(null);
 
-        summaryPanel = new SummaryPanel(theme);
-        eventsPanel = new EventsPanel(theme);
-        peoplePanel = new PeoplePanel(theme);
-        schedulePanel = new SchedulePanel(theme);
+        buildLayout(logo);
+        showSnapshot();
+
+        // nobody looks at a minimized window, so it does not keep the database busy
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowIconified(WindowEvent event) {
+                refreshScheduler.setPaused(true);
+            }
+
+            @Override
+            public void windowDeiconified(WindowEvent event) {
+                refreshScheduler.setPaused(false);
+            }
+        });
+        getRootPane().getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW)
+                .put(KeyStroke.getKeyStroke(KeyEvent.VK_F5, 0), "refresh");
+        getRootPane().getActionMap().put("refresh", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent event) {
+                // F5 asks for the database, not for cached results
+                dashboardService.invalidate();
+                refreshScheduler.request();
+            }
+        });
+    }
+
+    /**
+     * Starts loading the logo; meant to be called as soon as the image service exists, before the window is built.
+     */
+    public static CompletableFuture<BufferedImage> loadLogo(ImageService imageService) {
+        return imageService.load("logo.png", LOGO_SIZE);
+    }
+
+    /**
+     * Loads the data of the tabs shown so far and keeps it fresh; called once the database schema is ready.
+     */
+    public void start() {
+        started = true;
+        refreshScheduler.start();
+    }
+
+    @Override
+    public void paint(Graphics graphics) {
+        super.paint(graphics);
+        if (!painted) {
+            painted = true;
+            startup.mark("первая отрисовка");
+        }
+    }
+
+    /**
+     * Renders the dashboard saved by the previous run so the window is not empty while the database is queried.
+     */
+    private void showSnapshot() {
+        DashboardData snapshot = snapshotStore.load();
+        if (snapshot != null) {
+            showSummary(snapshot.summary());
+            showEvents(snapshot.events());
+            showActivities(snapshot.activities());
+            // the tables start with the saved first rows and the roster sizes of the saved summary
+            snapshot.users().forEach((role, head) -> showRoster(role, new RosterWindow(
+                    (int) Math.max(head.size(), summaryCount(snapshot.summary(), role)), 0, UserRoster.copyOf(head))));
+            statusLabel.setText("Сохранённые данные от " + DATE_TIME_FORMATTER.format(snapshot.loadedAt()) + ", обновление…");
+        }
+    }
+
+    private void showSummary(SummarySnapshot summary) {
+        this.summary = summary;
+        if (summaryPanel != null) {
+            summaryPanel.update(summary);
+        }
+    }
+
+    private void showEvents(List<Event> events) {
+        this.events = events;
+        if (eventsPanel != null) {
+            eventsPanel.update(events);
+        }
+        if (searchPanel != null) {
+            searchPanel.index("Мероприятия", events, SearchIndex.Entry::of);
+        }
+    }
+
+    private void showActivities(List<Activity> activities) {
+        this.activities = activities;
+        if (schedulePanel != null) {
+            schedulePanel.update(activities);
+        }
+        if (searchPanel != null) {
+            searchPanel.index("Расписание", activities, SearchIndex.Entry::of);
+        }
+    }
+
+    private void showConflicts(List<ScheduleConflict> conflicts) {
+        this.conflicts = conflicts;
+        if (schedulePanel != null) {
+            schedulePanel.showConflicts(conflicts);
+        }
+    }
 
-        buildLayout();
-        refreshData();
+    private void showRoster(String role, RosterWindow roster) {
+        rosters.put(role, roster);
+        if (roster.offset() == 0) {
+            int headSize = Math.min(roster.users().size(), RosterTableModel.PAGE_SIZE);
+            rosterHeads.put(role, UserRoster.copyOf(roster.users().subList(0, headSize)));
+        }
+        if (peoplePanel != null) {
+            peoplePanel.update(role, roster);
+        }
     }
 
-    private void buildLayout() {
+    private void buildLayout(CompletableFuture<BufferedImage> logo) {
         setLayout(new BorderLayout());
-        add(buildHeader(), BorderLayout.NORTH);
+        add(buildHeader(logo), BorderLayout.NORTH);
 
-        JTabbedPane tabs = new JTabbedPane();
         tabs.setFont(theme.baseFont());
+        addLazyTab("Панель", EnumSet.of(Dataset.EVENTS), this::buildDashboardTab);
+        addLazyTab("Команда", EnumSet.of(Dataset.ROSTERS), this::buildPeopleTab);
+        addLazyTab("Расписание", EnumSet.of(Dataset.SCHEDULE), this::buildScheduleTab);
+        addLazyTab("Поиск", EnumSet.of(Dataset.EVENTS, Dataset.SCHEDULE, Dataset.PEOPLE_INDEX), this::buildSearchTab);
+        tabs.addChangeListener(event -> tabShown(tabs.getSelectedIndex()));
+        tabShown(tabs.getSelectedIndex());
+
+        add(tabs, BorderLayout.CENTER);
+    }
 
+    private void addLazyTab(String title, Set<Dataset> datasets, Supplier<JComponent> factory) {
+        LazyTab tab = new LazyTab(new JPanel(new BorderLayout()), datasets, factory);
+        lazyTabs.add(tab);
+        tabs.addTab(title, tab.container);
+    }
+
+    /**
+     * Builds a tab the first time it is selected and loads the datasets it needs that nothing has asked for yet.
+     */
+    private void tabShown(int index) {
+        if (index < 0) {
+            return;
+        }
+        LazyTab tab = lazyTabs.get(index);
+        if (!tab.built) {
+            tab.built = true;
+            tab.container.add(tab.factory.get(), BorderLayout.CENTER);
+            tab.container.revalidate();
+        }
+        Set<Dataset> missing = EnumSet.copyOf(tab.datasets);
+        missing.removeAll(wanted);
+        if (!missing.isEmpty()) {
+            wanted.addAll(missing);
+            if (started) {
+                refreshData(missing);
+            }
+        }
+    }
+
+    private JComponent buildDashboardTab() {
+        summaryPanel = new SummaryPanel(theme);
+        eventsPanel = new EventsPanel(theme, imageService, pageExecutor);
+        if (summary != null) {
+            summaryPanel.update(summary);
+        }
+        if (events != null) {
+            eventsPanel.update(events);
+        }
         JPanel dashboardTab = new JPanel(new BorderLayout());
         dashboardTab.add(summaryPanel, BorderLayout.NORTH);
         dashboardTab.add(eventsPanel, BorderLayout.CENTER);
+        return dashboardTab;
+    }
 
-        tabs.addTab("Панель", dashboardTab);
-        tabs.addTab("Команда", peoplePanel);
-        tabs.addTab("Расписание", schedulePanel);
+    private JComponent buildPeopleTab() {
+        peoplePanel = new PeoplePanel(theme, imageService, dashboardService, pageExecutor);
+        rosters.forEach(peoplePanel::update);
+        return peoplePanel;
+    }
 
-        add(tabs, BorderLayout.CENTER);
+    private JComponent buildScheduleTab() {
+        schedulePanel = new SchedulePanel(theme, pageExecutor);
+        if (activities != null) {
+            schedulePanel.update(activities);
+        }
+        if (conflicts != null) {
+            schedulePanel.showConflicts(conflicts);
+        }
+        return schedulePanel;
     }
 
-    private JPanel buildHeader() {
+    private JComponent buildSearchTab() {
+        searchPanel = new SearchPanel(theme, searchExecutor);
+        if (events != null) {
+            searchPanel.index("Мероприятия", events, SearchIndex.Entry::of);
+        }
+        if (activities != null) {
+            searchPanel.index("Расписание", activities, SearchIndex.Entry::of);
+        }
+        return searchPanel;
+    }
+
+    private JPanel buildHeader(CompletableFuture<BufferedImage> logo) {
         JPanel header = new JPanel(new BorderLayout());
         header.setBackground(theme.primaryColor());
         header.setBorder(new EmptyBorder(16, 24, 16, 24));
 
-        JLabel logoLabel = new JLabel(loadLogoIcon());
+        JLabel logoLabel = new JLabel();
+        logoLabel.setPreferredSize(new Dimension(LOGO_SIZE, LOGO_SIZE));
         logoLabel.setHorizontalAlignment(SwingConstants.LEFT);
+        logo.thenAccept(image -> {
+            if (image != null) {
+                SwingUtilities.invokeLater(() -> logoLabel.setIcon(new ImageIcon(image)));
+            }
+        });
         header.add(logoLabel, BorderLayout.WEST);
 
         JLabel title = new JLabel("CyberShield — управление конференцией");
@@ -103,65 +382,417 @@ public class MainWindow extends JFrame {
         title.setFont(theme.titleFont());
         header.add(title, BorderLayout.CENTER);
 
+        statusLabel.setForeground(Color.WHITE);
+        statusLabel.setFont(theme.baseFont());
+        header.add(statusLabel, BorderLayout.EAST);
+
         return header;
     }
 
-    private ImageIcon loadLogoIcon() {
-        Path logoPath = configuration.imageRoot().resolve("logo.png");
-        if (Files.exists(logoPath)) {
-            try {
-                Image image = new ImageIcon(logoPath.toString()).getImage().getScaledInstance(64, 64, Image.SCALE_SMOOTH);
-                return new ImageIcon(image);
-            } catch (Exception ex) {
-                ex.printStackTrace();
-            }
+    /**
+     * Starts the queries of the given datasets, and of the summary, at once; each panel is filled, or shows its own
+     * error, as soon as its query returns. Every dataset keeps its own watermark: once it has been loaded, later
+     * refreshes fetch only its rows changed since then and merge them into the lists on screen, whichever other
+     * datasets are wanted. The snapshot is saved only when all queries succeeded and every dataset has been loaded.
+     *
+     * @return completes with {@code false} when some query failed; cancelling it stops the queries not yet started
+     */
+    private CompletableFuture<Boolean> refreshData(Set<Dataset> datasets) {
+        return new DashboardRefresh(datasets).start();
+    }
+
+    /**
+     * Groups of queries that the tabs ask for; the summary is part of every refresh.
+     */
+    private enum Dataset {
+        EVENTS,
+        /**
+         * Counts of the rosters and the rows their tables show.
+         */
+        ROSTERS,
+        SCHEDULE,
+        /**
+         * Every person, for the search index.
+         */
+        PEOPLE_INDEX
+    }
+
+    private static final class LazyTab {
+        private final JPanel container;
+        private final Set<Dataset> datasets;
+        private final Supplier<JComponent> factory;
+        private boolean built;
+
+        private LazyTab(JPanel container, Set<Dataset> datasets, Supplier<JComponent> factory) {
+            this.container = container;
+            this.datasets = datasets;
+            this.factory = factory;
         }
-        return new ImageIcon(new byte[0]);
     }
 
-    private void refreshData() {
-        new SwingWorker<Void, Void>() {
-            private SummarySnapshot summary;
-            private List<Event> events;
-            private Map<String, List<ConferenceUser>> users;
-            private List<Activity> activities;
+    private final class DashboardRefresh {
+        private final Set<Dataset> datasets;
+        private final Map<Dataset, Integer> generations = new EnumMap<>(Dataset.class);
+        private final List<String> failures = new ArrayList<>();
+        private final List<CompletableFuture<?>> loads = new ArrayList<>();
+        private final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        private final List<Event> baseEvents = events;
+        private final List<Activity> baseActivities = activities;
+        private final Map<LocalDateTime, CompletableFuture<ChangeSet<ConferenceUser>>> userChanges = new HashMap<>();
+        /**
+         * Watermarks of the datasets merged incrementally; the others are loaded in full.
+         */
+        private final Map<Dataset, LocalDateTime> since = new EnumMap<>(Dataset.class);
 
-            @Override
-            protected Void doInBackground() {
-                try {
-                    summary = dashboardService.loadSummary();
-                    events = dashboardService.loadEvents();
-                    activities = dashboardService.loadUpcomingActivities(12);
-                    users = new HashMap<>();
-                    users.put("PARTICIPANT", dashboardService.loadUsersByRole("PARTICIPANT"));
-                    users.put("MODERATOR", dashboardService.loadUsersByRole("MODERATOR"));
-                    users.put("JURY", dashboardService.loadUsersByRole("JURY"));
-                    users.put("ORGANIZER", dashboardService.loadUsersByRole("ORGANIZER"));
-                } catch (SQLException ex) {
-                    SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(MainWindow.this,
-                            "Не удалось загрузить данные: " + ex.getMessage(),
-                            "База данных",
-                            JOptionPane.ERROR_MESSAGE));
+        private DashboardRefresh(Set<Dataset> datasets) {
+            this.datasets = EnumSet.copyOf(datasets);
+            for (Dataset dataset : datasets) {
+                generations.put(dataset, refreshGenerations.merge(dataset, 1, Integer::sum));
+                LocalDateTime watermark = watermarks.get(dataset);
+                if (watermark != null) {
+                    since.put(dataset, watermark);
                 }
-                return null;
             }
+        }
 
-            @Override
-            protected void done() {
-                if (summary != null) {
-                    summaryPanel.update(summary);
+        private CompletableFuture<Boolean> start() {
+            done.whenComplete((succeeded, error) -> {
+                if (done.isCancelled()) {
+                    // a newer refresh supersedes this one: queued queries are skipped, running ones are ignored
+                    synchronized (loads) {
+                        loads.forEach(load -> load.cancel(false));
+                    }
+                }
+            });
+            // with a watermark only the rows changed since the last refresh travel over the network; the watermark
+            // of the full reads is taken before they start, so nothing written meanwhile is skipped later
+            Map<Dataset, CompletableFuture<LocalDateTime>> nextWatermarks = new EnumMap<>(Dataset.class);
+            CompletableFuture<LocalDateTime> before = since.keySet().containsAll(datasets)
+                    ? null
+                    : load(dashboardService::changeWatermark);
+            CompletableFuture<List<Event>> loadedEvents = null;
+            CompletableFuture<List<Activity>> loadedActivities = null;
+            CompletableFuture<List<ScheduleConflict>> loadedConflicts = null;
+            Map<String, CompletableFuture<RosterWindow>> loadedRosters = new LinkedHashMap<>();
+            Map<String, CompletableFuture<Integer>> indexedRoles = new LinkedHashMap<>();
+
+            if (datasets.contains(Dataset.EVENTS)) {
+                LocalDateTime eventsSince = since.get(Dataset.EVENTS);
+                if (eventsSince != null) {
+                    CompletableFuture<ChangeSet<Event>> eventChanges =
+                            load(() -> dashboardService.loadEventsChangedSince(eventsSince));
+                    nextWatermarks.put(Dataset.EVENTS, eventChanges.thenApply(ChangeSet::watermark));
+                    loadedEvents = eventChanges.thenCompose(changes -> changes.reloadRequired()
+                            ? load(dashboardService::loadEvents)
+                            : CompletableFuture.completedFuture(changes.applyTo(baseEvents, Event::id,
+                                    event -> true, DashboardService.EVENT_ORDER)));
+                } else {
+                    nextWatermarks.put(Dataset.EVENTS, before);
+                    loadedEvents = before.thenCompose(ignored -> load(dashboardService::loadEvents));
+                }
+            }
+            if (datasets.contains(Dataset.ROSTERS)) {
+                LocalDateTime rostersSince = since.get(Dataset.ROSTERS);
+                CompletableFuture<Boolean> rostersChanged;
+                if (rostersSince != null) {
+                    CompletableFuture<ChangeSet<ConferenceUser>> changes = usersChangedSince(rostersSince);
+                    nextWatermarks.put(Dataset.ROSTERS, changes.thenApply(ChangeSet::watermark));
+                    rostersChanged = changes.thenApply(changeSet -> changeSet.reloadRequired() || !changeSet.isEmpty());
+                } else {
+                    nextWatermarks.put(Dataset.ROSTERS, before);
+                    rostersChanged = before.thenApply(ignored -> true);
+                }
+                // the tables hold only a window of every roster: when some user changed, the counts and the rows
+                // at the windows' positions are read again, otherwise nothing is
+                for (String role : PeoplePanel.ROLES.keySet()) {
+                    RosterTableModel model = peoplePanel != null ? peoplePanel.model(role) : null;
+                    int offset = model != null ? model.windowStart() : 0;
+                    int limit = model != null ? model.windowLimit() : RosterTableModel.PAGE_SIZE;
+                    loadedRosters.put(role, rostersChanged.thenCompose(changed -> changed
+                            ? load(() -> dashboardService.loadRosterWindow(role, offset, limit))
+                            : CompletableFuture.completedFuture(null)));
+                }
+            }
+            SearchPanel search = searchPanel;
+            if (datasets.contains(Dataset.PEOPLE_INDEX) && search != null) {
+                LocalDateTime indexSince = since.get(Dataset.PEOPLE_INDEX);
+                if (indexSince != null) {
+                    CompletableFuture<ChangeSet<ConferenceUser>> changes = usersChangedSince(indexSince);
+                    nextWatermarks.put(Dataset.PEOPLE_INDEX, changes.thenApply(ChangeSet::watermark));
+                    for (String role : PeoplePanel.ROLES.keySet()) {
+                        indexedRoles.put(role, changes.thenCompose(changeSet -> changeSet.reloadRequired()
+                                ? load(() -> searchEntries(role)).thenCompose(entries -> search.index(role, entries))
+                                : search.update(role, changeSet)));
+                    }
+                } else {
+                    nextWatermarks.put(Dataset.PEOPLE_INDEX, before);
+                    for (String role : PeoplePanel.ROLES.keySet()) {
+                        indexedRoles.put(role, before.thenCompose(ignored -> load(() -> searchEntries(role)))
+                                .thenCompose(entries -> search.index(role, entries)));
+                    }
+                }
+            }
+            if (datasets.contains(Dataset.SCHEDULE)) {
+                LocalDateTime scheduleSince = since.get(Dataset.SCHEDULE);
+                if (scheduleSince != null) {
+                    CompletableFuture<ChangeSet<ScheduleSlot>> scheduleChanges =
+                            load(() -> dashboardService.loadScheduleChangedSince(scheduleSince));
+                    nextWatermarks.put(Dataset.SCHEDULE, scheduleChanges.thenApply(ChangeSet::watermark));
+                    // the conflict check keeps every slot and takes the changed ones; the short upcoming list is
+                    // read again only when the schedule changed or one of its activities has begun
+                    loadedConflicts = scheduleChanges.thenCompose(changes -> changes.reloadRequired()
+                            ? load(dashboardService::loadScheduleSlots).thenApply(scheduleConflicts::syncAndGet)
+                            : CompletableFuture.completedFuture(scheduleConflicts.applyAndGet(changes)));
+                    loadedActivities = scheduleChanges.thenCompose(changes ->
+                            changes.reloadRequired() || !changes.isEmpty() || upcomingStarted(baseActivities)
+                                    ? load(() -> dashboardService.loadUpcomingActivities(UPCOMING_ACTIVITIES))
+                                    : CompletableFuture.completedFuture(baseActivities));
+                } else {
+                    nextWatermarks.put(Dataset.SCHEDULE, before);
+                    loadedActivities = before.thenCompose(ignored ->
+                            load(() -> dashboardService.loadUpcomingActivities(UPCOMING_ACTIVITIES)));
+                    loadedConflicts = before.thenCompose(ignored -> load(dashboardService::loadScheduleSlots))
+                            .thenApply(scheduleConflicts::syncAndGet);
+                }
+            }
+            CompletableFuture<SummarySnapshot> loadedSummary = load(dashboardService::loadSummary);
+
+            List<CompletableFuture<?>> shown = new ArrayList<>(nextWatermarks.values());
+            shown.add(show(loadedSummary, null, "сводка", MainWindow.this::showSummary, message -> {
+                if (summaryPanel != null) {
+                    summaryPanel.showError(message);
+                }
+            }));
+            if (loadedEvents != null) {
+                shown.add(show(loadedEvents, Dataset.EVENTS, "мероприятия", MainWindow.this::showEvents, message -> {
+                    if (eventsPanel != null) {
+                        eventsPanel.showError(message);
+                    }
+                }));
+            }
+            if (loadedActivities != null) {
+                Consumer<String> scheduleError = message -> {
+                    if (schedulePanel != null) {
+                        schedulePanel.showError(message);
+                    }
+                };
+                shown.add(show(loadedActivities, Dataset.SCHEDULE, "расписание", MainWindow.this::showActivities,
+                        scheduleError));
+                shown.add(show(loadedConflicts, Dataset.SCHEDULE, "конфликты расписания", MainWindow.this::showConflicts,
+                        scheduleError));
+            }
+            loadedRosters.forEach((role, roster) -> shown.add(show(roster, Dataset.ROSTERS,
+                    PeoplePanel.ROLES.get(role).toLowerCase(Locale.ROOT), loaded -> {
+                        if (loaded != null) {
+                            showRoster(role, loaded);
+                        }
+                    }, message -> {
+                        if (peoplePanel != null) {
+                            peoplePanel.showError(role, message);
+                        }
+                    })));
+            indexedRoles.forEach((role, indexed) -> shown.add(show(indexed, Dataset.PEOPLE_INDEX,
+                    "поиск: " + PeoplePanel.ROLES.get(role).toLowerCase(Locale.ROOT),
+                    size -> indexedPeople.put(role, size), search::showError)));
+
+            CompletableFuture.allOf(shown.toArray(new CompletableFuture<?>[0])).whenCompleteAsync((ignored, error) -> {
+                if (done.isCancelled()) {
+                    return;
+                }
+                startup.finish("данные загружены");
+                boolean succeeded = failures.isEmpty() && error == null;
+                done.complete(succeeded);
+                if (!succeeded) {
+                    // the old watermarks stay; changes already merged are simply delivered again next time
+                    if (isCurrent()) {
+                        statusLabel.setText("Не обновлено: " + String.join(", ", failures));
+                    }
+                    return;
                 }
-                if (events != null) {
-                    eventsPanel.update(events);
+                boolean countersBehind = false;
+                for (Dataset dataset : datasets) {
+                    if (!isCurrent(dataset)) {
+                        // a newer refresh of the dataset moves its watermark
+                        continue;
+                    }
+                    if (matchesSummary(dataset)) {
+                        watermarks.put(dataset, nextWatermarks.get(dataset).join());
+                    } else if (since.containsKey(dataset)) {
+                        // merged lists that disagree with the summary mean changes bypassed tracking (e.g. TRUNCATE)
+                        watermarks.remove(dataset);
+                    } else {
+                        // a full reload is what the tables hold: the counters, not the lists, are behind
+                        watermarks.put(dataset, nextWatermarks.get(dataset).join());
+                        countersBehind = true;
+                    }
                 }
-                if (activities != null) {
-                    schedulePanel.update(activities);
+                if (isCurrent()) {
+                    statusLabel.setText(countersBehind
+                            ? "Счётчики сводки расходятся с данными, выполните --recompute-summary"
+                            : "");
                 }
-                if (users != null) {
-                    peoplePanel.update(users);
+                DashboardData data = snapshot();
+                if (data != null) {
+                    refreshExecutor.execute(() -> saveSnapshot(data));
+                }
+            }, SwingUtilities::invokeLater);
+            return done;
+        }
+
+        /**
+         * Users changed since {@code watermark}, read once per refresh however many datasets merge them.
+         */
+        private CompletableFuture<ChangeSet<ConferenceUser>> usersChangedSince(LocalDateTime watermark) {
+            return userChanges.computeIfAbsent(watermark,
+                    key -> load(() -> dashboardService.loadUsersChangedSince(key)));
+        }
+
+        /**
+         * Streams a roster into search entries, so no list of users is held on the way.
+         */
+        private List<SearchIndex.Entry> searchEntries(String role) throws SQLException {
+            List<SearchIndex.Entry> entries = new ArrayList<>();
+            dashboardService.streamUsersByRole(role, user -> entries.add(SearchIndex.Entry.of(user)));
+            return entries;
+        }
+
+        private <T> CompletableFuture<T> load(SQLSupplier<T> query) {
+            CompletableFuture<T> load = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return query.get();
+                } catch (SQLException ex) {
+                    throw new CompletionException(ex);
                 }
+            }, refreshExecutor);
+            // follow-up loads are started from refresh threads, possibly after the refresh was cancelled
+            synchronized (loads) {
+                loads.add(load);
             }
-        }.execute();
+            if (done.isCancelled()) {
+                load.cancel(false);
+            }
+            return load;
+        }
+
+        private <T> CompletableFuture<Void> show(CompletableFuture<T> load,
+                                                 Dataset dataset,
+                                                 String section,
+                                                 Consumer<T> update,
+                                                 Consumer<String> showError) {
+            return load.handleAsync((value, error) -> {
+                if (done.isCancelled() || (dataset != null && !isCurrent(dataset))) {
+                    return null;
+                }
+                if (error == null) {
+                    update.accept(value);
+                } else {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause()
+                            : error;
+                    failures.add(section);
+                    showError.accept("Не удалось загрузить данные: " + cause.getMessage());
+                }
+                return null;
+            }, SwingUtilities::invokeLater);
+        }
+
+        private boolean isCurrent() {
+            return datasets.stream().allMatch(this::isCurrent);
+        }
+
+        private boolean isCurrent(Dataset dataset) {
+            // a newer refresh of the same dataset owns its panels; late answers from this one are dropped
+            return generations.get(dataset).equals(refreshGenerations.get(dataset));
+        }
+    }
+
+    /**
+     * Whether an activity of the upcoming list has begun, so the list has to move on.
+     */
+    private static boolean upcomingStarted(List<Activity> upcoming) {
+        if (upcoming == null) {
+            return true;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return upcoming.stream().anyMatch(activity -> activity.startTime() != null && !activity.startTime().isAfter(now));
+    }
+
+    /**
+     * Whether the lists of a dataset hold as many rows as the summary counts.
+     */
+    private boolean matchesSummary(Dataset dataset) {
+        if (summary == null) {
+            return false;
+        }
+        return switch (dataset) {
+            case EVENTS -> events != null && events.size() == summary.events();
+            case ROSTERS -> PeoplePanel.ROLES.keySet().stream().allMatch(role ->
+                    rosters.containsKey(role) && rosters.get(role).total() == summaryCount(summary, role));
+            case SCHEDULE -> scheduleConflicts.size() == summary.activities();
+            case PEOPLE_INDEX -> PeoplePanel.ROLES.keySet().stream().allMatch(role ->
+                    indexedPeople.containsKey(role) && indexedPeople.get(role) == summaryCount(summary, role));
+        };
+    }
+
+    private static long summaryCount(SummarySnapshot summary, String role) {
+        return switch (role) {
+            case "PARTICIPANT" -> summary.participants();
+            case "MODERATOR" -> summary.moderators();
+            case "JURY" -> summary.jury();
+            case "ORGANIZER" -> summary.organizers();
+            default -> 0;
+        };
+    }
+
+    /**
+     * Everything on screen as one snapshot, or {@code null} while some dataset has never been loaded.
+     */
+    private DashboardData snapshot() {
+        if (summary == null || events == null || activities == null
+                || !rosterHeads.keySet().containsAll(PeoplePanel.ROLES.keySet())) {
+            return null;
+        }
+        return new DashboardData(summary, events, activities, new LinkedHashMap<>(rosterHeads), LocalDateTime.now());
+    }
+
+    private void saveSnapshot(DashboardData data) {
+        try {
+            snapshotStore.save(data);
+        } catch (IOException ex) {
+            System.err.println("Не удалось сохранить снимок панели: " + ex.getMessage());
+        }
+    }
+
+    /**
+     * Error line shown above a panel's content; hidden while the panel's last load succeeded.
+     */
+    private static final class ErrorBanner extends JLabel {
+        private ErrorBanner(BrandingTheme theme) {
+            setFont(theme.baseFont());
+            setForeground(ERROR_COLOR);
+            setBorder(new EmptyBorder(0, 0, 8, 0));
+            setVisible(false);
+        }
+
+        private void report(String message) {
+            setText(message);
+            setVisible(true);
+        }
+
+        private void clear() {
+            setText("");
+            setVisible(false);
+        }
+    }
+
+    /**
+     * Shows the first column as thumbnails of the image paths it holds.
+     */
+    private static void useThumbnails(JTable table, ImageService imageService, int size) {
+        TableColumn column = table.getColumnModel().getColumn(0);
+        column.setCellRenderer(new ThumbnailRenderer(imageService, size));
+        column.setMinWidth(size + 8);
+        column.setMaxWidth(size + 8);
     }
 
     private static class SummaryPanel extends JPanel {
@@ -173,18 +804,30 @@ public class MainWindow extends JFrame {
         private final JLabel organizersLabel = createCardLabel();
         private final JLabel teamsLabel = createCardLabel();
 
+        private final ErrorBanner errorBanner;
+
         private SummaryPanel(BrandingTheme theme) {
-            setLayout(new GridLayout(1, 7, 12, 12));
+            setLayout(new BorderLayout());
             setBorder(new EmptyBorder(16, 16, 16, 16));
             setBackground(theme.surfaceColor());
 
-            add(buildCard("Мероприятия", eventsLabel, theme));
-            add(buildCard("Активности", activitiesLabel, theme));
-            add(buildCard("Участники", participantsLabel, theme));
-            add(buildCard("Модераторы", moderatorsLabel, theme));
-            add(buildCard("Жюри", juryLabel, theme));
-            add(buildCard("Организаторы", organizersLabel, theme));
-            add(buildCard("Команды", teamsLabel, theme));
+            JPanel cards = new JPanel(new GridLayout(1, 7, 12, 12));
+            cards.setOpaque(false);
+            cards.add(buildCard("Мероприятия", eventsLabel, theme));
+            cards.add(buildCard("Активности", activitiesLabel, theme));
+            cards.add(buildCard("Участники", participantsLabel, theme));
+            cards.add(buildCard("Модераторы", moderatorsLabel, theme));
+            cards.add(buildCard("Жюри", juryLabel, theme));
+            cards.add(buildCard("Организаторы", organizersLabel, theme));
+            cards.add(buildCard("Команды", teamsLabel, theme));
+
+            errorBanner = new ErrorBanner(theme);
+            add(errorBanner, BorderLayout.NORTH);
+            add(cards, BorderLayout.CENTER);
+        }
+
+        private void showError(String message) {
+            errorBanner.report(message);
         }
 
         private static JLabel createCardLabel() {
@@ -211,6 +854,7 @@ public class MainWindow extends JFrame {
         }
 
         private void update(SummarySnapshot snapshot) {
+            errorBanner.clear();
             eventsLabel.setText(String.valueOf(snapshot.events()));
             activitiesLabel.setText(String.valueOf(snapshot.activities()));
             participantsLabel.setText(String.valueOf(snapshot.participants()));
@@ -222,36 +866,44 @@ public class MainWindow extends JFrame {
     }
 
     private static class EventsPanel extends JPanel {
-        private final DefaultTableModel model;
+        private final WindowedTableModel<Event> model;
+        private final ErrorBanner errorBanner;
 
-        private EventsPanel(BrandingTheme theme) {
+        private EventsPanel(BrandingTheme theme, ImageService imageService, Executor pageExecutor) {
             setLayout(new BorderLayout());
             setBorder(new EmptyBorder(16, 16, 16, 16));
             setBackground(theme.surfaceColor());
 
-            model = new DefaultTableModel(new Object[]{"Мероприятие", "Даты", "Площадка"}, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
+            model = new WindowedTableModel<>(
+                    new String[]{"", "Мероприятие", "Даты", "Площадка"},
+                    EventsPanel::toCells,
+                    Event::id,
+                    pageExecutor);
             JTable table = new JTable(model);
-            table.setRowHeight(28);
+            table.setRowHeight(EVENT_IMAGE_SIZE + 4);
+            useThumbnails(table, imageService, EVENT_IMAGE_SIZE);
             table.setFont(theme.baseFont());
             table.getTableHeader().setFont(theme.baseFont().deriveFont(Font.BOLD));
+            errorBanner = new ErrorBanner(theme);
+            add(errorBanner, BorderLayout.NORTH);
             add(new JScrollPane(table), BorderLayout.CENTER);
         }
 
+        private void showError(String message) {
+            errorBanner.report(message);
+        }
+
         private void update(List<Event> events) {
-            model.setRowCount(0);
-            for (Event event : events) {
-                String dateRange = buildDateRange(event.startDate(), event.endDate());
-                String venue = event.city() != null ? event.city().name() : event.venue();
-                model.addRow(new Object[]{event.title(), dateRange, venue});
-            }
+            errorBanner.clear();
+            model.setRows(events);
+        }
+
+        private static Object[] toCells(Event event) {
+            String venue = event.city() != null ? event.city().name() : event.venue();
+            return new Object[]{event.imagePath(), event.title(), buildDateRange(event.startDate(), event.endDate()), venue};
         }
 
-        private String buildDateRange(java.time.LocalDate start, java.time.LocalDate end) {
+        private static String buildDateRange(java.time.LocalDate start, java.time.LocalDate end) {
             if (start == null) {
                 return "Не указано";
             }
@@ -263,83 +915,307 @@ public class MainWindow extends JFrame {
     }
 
     private static class PeoplePanel extends JPanel {
-        private final Map<String, DefaultTableModel> models = new HashMap<>();
+        private static final Map<String, String> ROLES = rolesInTabOrder();
+
+        private final Map<String, RosterTableModel> models = new HashMap<>();
+        private final Map<String, String> errors = new LinkedHashMap<>();
+        private final ErrorBanner errorBanner;
         private final JTabbedPane tabs;
 
-        private PeoplePanel(BrandingTheme theme) {
+        private PeoplePanel(BrandingTheme theme,
+                            ImageService imageService,
+                            DashboardService dashboardService,
+                            Executor pageExecutor) {
             setLayout(new BorderLayout());
             setBorder(new EmptyBorder(16, 16, 16, 16));
 
             tabs = new JTabbedPane();
             tabs.setFont(theme.baseFont());
 
-            addTab(theme, "Участники", "PARTICIPANT");
-            addTab(theme, "Модераторы", "MODERATOR");
-            addTab(theme, "Жюри", "JURY");
-            addTab(theme, "Организаторы", "ORGANIZER");
+            ROLES.forEach((key, title) -> addTab(theme, imageService, dashboardService, pageExecutor, title, key));
 
+            errorBanner = new ErrorBanner(theme);
+            add(errorBanner, BorderLayout.NORTH);
             add(tabs, BorderLayout.CENTER);
         }
 
-        private void addTab(BrandingTheme theme, String title, String key) {
-            DefaultTableModel model = new DefaultTableModel(new Object[]{"ФИО", "Email", "Телефон", "Организация"}, 0) {
+        private static Map<String, String> rolesInTabOrder() {
+            Map<String, String> roles = new LinkedHashMap<>();
+            roles.put("PARTICIPANT", "Участники");
+            roles.put("MODERATOR", "Модераторы");
+            roles.put("JURY", "Жюри");
+            roles.put("ORGANIZER", "Организаторы");
+            return roles;
+        }
+
+        private void addTab(BrandingTheme theme,
+                            ImageService imageService,
+                            DashboardService dashboardService,
+                            Executor pageExecutor,
+                            String title,
+                            String key) {
+            RosterTableModel model = new RosterTableModel(
+                    new String[]{"", "ФИО", "Email", "Телефон", "Организация"},
+                    user -> new Object[]{user.photoPath(), user.fullName(), user.email(), user.phone(),
+                            user.organization()},
+                    dashboardService,
+                    key,
+                    pageExecutor,
+                    message -> showError(key, message));
+            models.put(key, model);
+            JTable table = new JTable(model);
+            table.setRowHeight(PHOTO_SIZE + 4);
+            useThumbnails(table, imageService, PHOTO_SIZE);
+            table.setFont(theme.baseFont());
+            table.getTableHeader().setFont(theme.baseFont().deriveFont(Font.BOLD));
+            tabs.addTab(title, new JScrollPane(table));
+        }
+
+        private RosterTableModel model(String role) {
+            return models.get(role);
+        }
+
+        private void update(String role, RosterWindow roster) {
+            RosterTableModel model = models.get(role);
+            if (model == null) {
+                return;
+            }
+            model.apply(roster);
+            errors.remove(role);
+            renderErrors();
+        }
+
+        private void showError(String role, String message) {
+            errors.put(role, ROLES.get(role) + ": " + message);
+            renderErrors();
+        }
+
+        private void renderErrors() {
+            if (errors.isEmpty()) {
+                errorBanner.clear();
+            } else {
+                errorBanner.report(String.join("; ", errors.values()));
+            }
+        }
+    }
+
+    /**
+     * Search box over everything the dashboard has loaded. Indexing and queries run one at a time on the search
+     * thread; an answer that arrives after the query text has changed again is dropped.
+     */
+    private static class SearchPanel extends JPanel {
+        private static final int MAX_RESULTS = 100;
+
+        private final SearchIndex index = new SearchIndex();
+        private final ExecutorService executor;
+        private final JTextField field = new JTextField();
+        private final JLabel countLabel = new JLabel(" ");
+        private final DefaultTableModel results;
+        private int querySequence;
+
+        private SearchPanel(BrandingTheme theme, ExecutorService executor) {
+            this.executor = executor;
+            setLayout(new BorderLayout(0, 8));
+            setBorder(new EmptyBorder(16, 16, 16, 16));
+
+            field.setFont(theme.baseFont());
+            field.setToolTipText("ФИО, email, телефон, организация, мероприятие или активность");
+            field.getDocument().addDocumentListener(new DocumentListener() {
+                @Override
+                public void insertUpdate(DocumentEvent e) {
+                    search();
+                }
+
+                @Override
+                public void removeUpdate(DocumentEvent e) {
+                    search();
+                }
+
+                @Override
+                public void changedUpdate(DocumentEvent e) {
+                    search();
+                }
+            });
+            countLabel.setFont(theme.baseFont());
+
+            results = new DefaultTableModel(new Object[]{"Раздел", "Название", "Подробности"}, 0) {
                 @Override
                 public boolean isCellEditable(int row, int column) {
                     return false;
                 }
             };
-            models.put(key, model);
-            JTable table = new JTable(model);
+            JTable table = new JTable(results);
             table.setRowHeight(26);
             table.setFont(theme.baseFont());
             table.getTableHeader().setFont(theme.baseFont().deriveFont(Font.BOLD));
-            tabs.addTab(title, new JScrollPane(table));
+
+            JPanel top = new JPanel(new BorderLayout(0, 4));
+            top.setOpaque(false);
+            top.add(field, BorderLayout.NORTH);
+            top.add(countLabel, BorderLayout.SOUTH);
+            add(top, BorderLayout.NORTH);
+            add(new JScrollPane(table), BorderLayout.CENTER);
+        }
+
+        /**
+         * Brings one section of the index in line with the rows just shown and repeats the current query.
+         */
+        private <T> void index(String section, List<T> values, Function<T, SearchIndex.Entry> toEntry) {
+            executor.execute(() -> {
+                if (index.sync(section, SearchIndex.Entry.all(values, toEntry)) > 0) {
+                    SwingUtilities.invokeLater(this::search);
+                }
+            });
+        }
+
+        /**
+         * Replaces the people of one role; completes with their number once indexed.
+         */
+        private CompletableFuture<Integer> index(String role, List<SearchIndex.Entry> people) {
+            String section = PeoplePanel.ROLES.get(role);
+            return CompletableFuture.supplyAsync(() -> {
+                if (index.sync(section, people) > 0) {
+                    SwingUtilities.invokeLater(this::search);
+                }
+                return index.size(section);
+            }, executor);
         }
 
-        private void update(Map<String, List<ConferenceUser>> users) {
-            for (Map.Entry<String, DefaultTableModel> entry : models.entrySet()) {
-                entry.getValue().setRowCount(0);
-                List<ConferenceUser> list = users.getOrDefault(entry.getKey(), List.of());
-                for (ConferenceUser user : list) {
-                    entry.getValue().addRow(new Object[]{user.fullName(), user.email(), user.phone(), user.organization()});
+        /**
+         * Merges changed people into the section of one role: users that now have another role or were deleted
+         * leave it. Completes with the number of people of the role once indexed.
+         */
+        private CompletableFuture<Integer> update(String role, ChangeSet<ConferenceUser> changes) {
+            String section = PeoplePanel.ROLES.get(role);
+            List<SearchIndex.Entry> changed = new ArrayList<>();
+            Set<Long> removed = new HashSet<>(changes.deletedIds());
+            for (ConferenceUser user : changes.changed()) {
+                if (role.equals(user.role())) {
+                    changed.add(SearchIndex.Entry.of(user));
+                } else {
+                    removed.add(user.id());
                 }
             }
+            return CompletableFuture.supplyAsync(() -> {
+                if (index.update(section, changed, removed) > 0) {
+                    SwingUtilities.invokeLater(this::search);
+                }
+                return index.size(section);
+            }, executor);
+        }
+
+        private void showError(String message) {
+            countLabel.setText(message);
+        }
+
+        private void search() {
+            String query = field.getText();
+            int sequence = ++querySequence;
+            if (query.isBlank()) {
+                show(sequence, List.of());
+                return;
+            }
+            executor.execute(() -> {
+                List<SearchIndex.Hit> hits = index.search(query, MAX_RESULTS);
+                SwingUtilities.invokeLater(() -> show(sequence, hits));
+            });
+        }
+
+        private void show(int sequence, List<SearchIndex.Hit> hits) {
+            if (sequence != querySequence) {
+                return;
+            }
+            results.setRowCount(0);
+            for (SearchIndex.Hit hit : hits) {
+                results.addRow(new Object[]{hit.section(), hit.title(), hit.detail()});
+            }
+            if (field.getText().isBlank()) {
+                countLabel.setText(" ");
+            } else if (hits.size() == MAX_RESULTS) {
+                countLabel.setText("Показаны первые " + MAX_RESULTS + " совпадений");
+            } else {
+                countLabel.setText("Совпадений: " + hits.size());
+            }
         }
     }
 
     private static class SchedulePanel extends JPanel {
-        private final DefaultTableModel model;
+        private final WindowedTableModel<Activity> model;
+        private final ErrorBanner errorBanner;
 
-        private SchedulePanel(BrandingTheme theme) {
+        private final JList<String> conflictList = new JList<>();
+        private final JScrollPane conflictScroll = new JScrollPane(conflictList);
+        private final JLabel conflictTitle = new JLabel();
+
+        private SchedulePanel(BrandingTheme theme, Executor pageExecutor) {
             setLayout(new BorderLayout());
             setBorder(new EmptyBorder(16, 16, 16, 16));
 
-            model = new DefaultTableModel(new Object[]{"Активность", "Мероприятие", "Начало", "Модератор", "Победитель"}, 0) {
-                @Override
-                public boolean isCellEditable(int row, int column) {
-                    return false;
-                }
-            };
+            model = new WindowedTableModel<>(
+                    new String[]{"Активность", "Мероприятие", "Начало", "Модератор", "Победитель"},
+                    SchedulePanel::toCells,
+                    Activity::id,
+                    pageExecutor);
             JTable table = new JTable(model);
             table.setRowHeight(26);
             table.setFont(theme.baseFont());
             table.getTableHeader().setFont(theme.baseFont().deriveFont(Font.BOLD));
+            errorBanner = new ErrorBanner(theme);
+            add(errorBanner, BorderLayout.NORTH);
             add(new JScrollPane(table), BorderLayout.CENTER);
+
+            conflictTitle.setFont(theme.baseFont().deriveFont(Font.BOLD));
+            conflictList.setFont(theme.baseFont());
+            conflictList.setForeground(ERROR_COLOR);
+            conflictList.setVisibleRowCount(6);
+            JPanel conflictsBox = new JPanel(new BorderLayout(0, 4));
+            conflictsBox.setBorder(new EmptyBorder(8, 0, 0, 0));
+            conflictsBox.add(conflictTitle, BorderLayout.NORTH);
+            conflictsBox.add(conflictScroll, BorderLayout.CENTER);
+            add(conflictsBox, BorderLayout.SOUTH);
+            showConflicts(List.of());
+        }
+
+        private void showError(String message) {
+            errorBanner.report(message);
         }
 
         private void update(List<Activity> activities) {
-            model.setRowCount(0);
-            for (Activity activity : activities) {
-                String start = activity.startTime() != null ? DATE_TIME_FORMATTER.format(activity.startTime()) : "Не задано";
-                String moderator = activity.moderator() != null ? activity.moderator().fullName() : "-";
-                model.addRow(new Object[]{
-                        activity.name(),
-                        activity.event() != null ? activity.event().title() : "-",
-                        start,
-                        moderator,
-                        activity.winnerTeam() != null ? activity.winnerTeam() : "-"
-                });
+            errorBanner.clear();
+            model.setRows(activities);
+        }
+
+        private void showConflicts(List<ScheduleConflict> conflicts) {
+            conflictTitle.setText(conflicts.isEmpty()
+                    ? "Конфликтов в расписании нет"
+                    : "Конфликты в расписании: " + conflicts.size());
+            conflictList.setListData(conflicts.stream().map(SchedulePanel::describe).toArray(String[]::new));
+            conflictScroll.setVisible(!conflicts.isEmpty());
+            revalidate();
+        }
+
+        private static String describe(ScheduleConflict conflict) {
+            ScheduleSlot slot = conflict.slot();
+            if (conflict.kind() == ScheduleConflict.Kind.OUTSIDE_EVENT) {
+                return "«" + slot.activityName() + "» (" + DATE_TIME_FORMATTER.format(slot.start())
+                        + ") проходит вне дат мероприятия «" + slot.eventTitle() + "»";
             }
+            ScheduleSlot.Assignee person = conflict.person();
+            return person.fullName() + (person.moderator() ? " (модератор)" : " (жюри)") + ": «" + slot.activityName()
+                    + "» в " + DATE_TIME_FORMATTER.format(slot.start()) + " пересекается с «"
+                    + conflict.other().activityName() + "» в " + DATE_TIME_FORMATTER.format(conflict.other().start());
+        }
+
+        private static Object[] toCells(Activity activity) {
+            String start = activity.startTime() != null ? DATE_TIME_FORMATTER.format(activity.startTime()) : "Не задано";
+            String moderator = activity.moderator() != null ? activity.moderator().fullName() : "-";
+            return new Object[]{
+                    activity.name(),
+                    activity.event() != null ? activity.event().title() : "-",
+                    start,
+                    moderator,
+                    activity.winnerTeam() != null ? activity.winnerTeam() : "-"
+            };
         }
     }
 }
@@ -0,0 +1,123 @@
+package com.infosecconference.desktop.ui;
+
+import com.infosecconference.desktop.config.RefreshSettings;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Repeats the dashboard refresh on the EDT. The next run is planned when the previous one ends, so periodic runs
+ * never overlap; requests that arrive close together are merged into one run, and a requested run that starts
+ * while another is still loading cancels it. After a failed refresh the pause doubles up to the configured maximum.
+ * While paused (the window is minimized) nothing runs, and a refresh that fell due meanwhile runs on resume.
+ * All methods must be called on the EDT.
+ */
+final class RefreshScheduler {
+    private static final int COALESCE_DELAY_MILLIS = 250;
+    private static final long NOT_PLANNED = Long.MAX_VALUE;
+
+    private final RefreshSettings settings;
+    private final Supplier<CompletableFuture<Boolean>> refresh;
+    private final Timer timer;
+    private CompletableFuture<Boolean> running;
+    private long dueAt = NOT_PLANNED;
+    private int failures;
+    private boolean started;
+    private boolean paused;
+
+    /**
+     * @param refresh starts one refresh; its future completes with {@code false} when some query failed, and is
+     *                cancelled by the scheduler when a newer refresh supersedes it
+     */
+    RefreshScheduler(RefreshSettings settings, Supplier<CompletableFuture<Boolean>> refresh) {
+        this.settings = settings;
+        this.refresh = refresh;
+        this.timer = new Timer(0, event -> run());
+        this.timer.setRepeats(false);
+    }
+
+    /**
+     * Runs the first refresh right away; requests made before are folded into it.
+     */
+    void start() {
+        started = true;
+        dueAt = System.nanoTime();
+        arm();
+    }
+
+    /**
+     * Asks for a refresh soon, e.g. on F5.
+     */
+    void request() {
+        plan(COALESCE_DELAY_MILLIS);
+    }
+
+    void setPaused(boolean paused) {
+        if (this.paused == paused) {
+            return;
+        }
+        this.paused = paused;
+        if (paused) {
+            timer.stop();
+        } else {
+            arm();
+        }
+    }
+
+    /**
+     * Moves the next run earlier if it is due later than {@code delayMillis} from now.
+     */
+    private void plan(long delayMillis) {
+        long at = System.nanoTime() + delayMillis * 1_000_000;
+        if (dueAt == NOT_PLANNED || at - dueAt < 0) {
+            dueAt = at;
+            arm();
+        }
+    }
+
+    private void arm() {
+        timer.stop();
+        if (!started || paused || dueAt == NOT_PLANNED) {
+            return;
+        }
+        long remainingMillis = Math.max(0, (dueAt - System.nanoTime()) / 1_000_000);
+        timer.setInitialDelay((int) Math.min(remainingMillis, Integer.MAX_VALUE));
+        timer.start();
+    }
+
+    private void run() {
+        if (paused) {
+            // fired just before the window was minimized; resuming arms it again
+            return;
+        }
+        dueAt = NOT_PLANNED;
+        if (running != null) {
+            running.cancel(false);
+        }
+        CompletableFuture<Boolean> current = refresh.get();
+        running = current;
+        current.whenComplete((succeeded, error) -> SwingUtilities.invokeLater(() -> finished(current, succeeded)));
+    }
+
+    private void finished(CompletableFuture<Boolean> refresh, Boolean succeeded) {
+        if (refresh != running) {
+            return;
+        }
+        running = null;
+        failures = Boolean.TRUE.equals(succeeded) ? 0 : failures + 1;
+        if (settings.enabled()) {
+            plan(nextDelayMillis());
+        }
+    }
+
+    private long nextDelayMillis() {
+        long delay = settings.interval().toMillis();
+        long max = settings.maxBackoff().toMillis();
+        for (int i = 0; i < failures && delay < max; i++) {
+            delay *= 2;
+        }
+        return Math.min(delay, max);
+    }
+}
@@ -0,0 +1,329 @@
+package com.infosecconference.desktop.ui;
+
+import com.infosecconference.desktop.model.ConferenceUser;
+import com.infosecconference.desktop.service.DashboardService;
+import com.infosecconference.desktop.service.RosterPage;
+import com.infosecconference.desktop.service.RosterWindow;
+import com.infosecconference.desktop.util.SQLSupplier;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-only table model over one role roster that keeps only a window of a few pages in memory. The row count is
+ * the roster's {@code COUNT(*)}, so the scrollbar is right immediately; rows outside the window show blank and are
+ * read on a background executor when the table paints them. Scrolling past the end of the window continues from
+ * the keyset cursor of its last row; a jump first looks up the cursor at the page's position.
+ * <p>
+ * A refresh ({@link #apply}) brings the new count and the rows at the window's position. The window is compared
+ * with the loaded rows by id, so only rows inserted, deleted or changed there are reported to the table, and a
+ * change of the count is reported at the end of the table; selection and scroll position survive. The executor
+ * must run tasks one at a time in submission order. All other methods must be called on the Event Dispatch Thread.
+ */
+final class RosterTableModel extends AbstractTableModel {
+    static final int PAGE_SIZE = 200;
+    private static final int MAX_WINDOW = 4 * PAGE_SIZE;
+
+    private final String[] columns;
+    private final Function<? super ConferenceUser, Object[]> toCells;
+    private final DashboardService dashboardService;
+    private final String role;
+    private final Executor executor;
+    private final Consumer<String> showError;
+
+    private int rowCount;
+    private int windowStart;
+    private List<ConferenceUser> window = List.of();
+    private List<Object[]> cells = new ArrayList<>();
+    // the one page read in flight, 0 when none; a refresh clears it so the answer of an older read is dropped
+    private int activeRead;
+    private int readSequence;
+    private int wantedRow = -1;
+    // a failed read is not repeated by the repaint its error message causes, only after the next refresh
+    private boolean readFailed;
+
+    RosterTableModel(String[] columns,
+                     Function<? super ConferenceUser, Object[]> toCells,
+                     DashboardService dashboardService,
+                     String role,
+                     Executor executor,
+                     Consumer<String> showError) {
+        this.columns = columns.clone();
+        this.toCells = toCells;
+        this.dashboardService = dashboardService;
+        this.role = role;
+        this.executor = executor;
+        this.showError = showError;
+    }
+
+    /**
+     * Position of the window, for a refresh to read the rows the table shows.
+     */
+    int windowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Number of rows a refresh should read at {@link #windowStart()}.
+     */
+    int windowLimit() {
+        return Math.max(PAGE_SIZE, window.size());
+    }
+
+    /**
+     * Takes the count and the rows of a refresh.
+     */
+    void apply(RosterWindow fetched) {
+        activeRead = 0;
+        readFailed = false;
+        List<ConferenceUser> previous = window;
+        int previousStart = windowStart;
+        int previousCount = rowCount;
+        rowCount = fetched.total();
+        windowStart = fetched.offset();
+        window = fetched.users();
+        cells = new ArrayList<>(Collections.nCopies(window.size(), null));
+
+        int reported;
+        if (previousStart == windowStart) {
+            TableChanges changes = diff(previous, window);
+            if (!changes.fire(this, windowStart)) {
+                return;
+            }
+            reported = previousCount + changes.net();
+        } else {
+            // the table scrolled while the refresh was reading: the old rows are not comparable
+            int first = Math.min(previousStart, windowStart);
+            int last = Math.min(Math.max(previousStart + previous.size(), windowStart + window.size()),
+                    Math.min(previousCount, rowCount)) - 1;
+            if (last >= first) {
+                fireTableRowsUpdated(first, last);
+            }
+            reported = previousCount;
+        }
+        if (rowCount > reported) {
+            fireTableRowsInserted(reported, rowCount - 1);
+        } else if (rowCount < reported) {
+            fireTableRowsDeleted(rowCount, reported - 1);
+        }
+        requestWanted();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int index = row - windowStart;
+        if (index < 0 || index >= window.size()) {
+            request(row);
+            return null;
+        }
+        Object[] rowCells = cells.get(index);
+        if (rowCells == null) {
+            rowCells = toCells.apply(window.get(index));
+            cells.set(index, rowCells);
+        }
+        return rowCells[column];
+    }
+
+    /**
+     * Walks the old and the new window in order, like {@link WindowedTableModel}: rows with the same id at the
+     * same place are kept or updated, others are deleted or inserted.
+     */
+    private static TableChanges diff(List<ConferenceUser> previous, List<ConferenceUser> next) {
+        Map<Long, Integer> previousIndex = new HashMap<>();
+        for (int i = 0; i < previous.size(); i++) {
+            previousIndex.put(previous.get(i).id(), i);
+        }
+        Set<Long> nextIds = new HashSet<>();
+        for (ConferenceUser user : next) {
+            nextIds.add(user.id());
+        }
+        TableChanges changes = new TableChanges();
+        Set<Long> movedOut = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < previous.size() || j < next.size()) {
+            if (i < previous.size() && j < next.size() && previous.get(i).id() == next.get(j).id()) {
+                if (!previous.get(i).equals(next.get(j))) {
+                    changes.add(TableChanges.Kind.UPDATE, position);
+                }
+                i++;
+                j++;
+                position++;
+            } else if (j < next.size()
+                    && (movedOut.contains(next.get(j).id()) || !previousIndex.containsKey(next.get(j).id()))) {
+                changes.add(TableChanges.Kind.INSERT, position);
+                j++;
+                position++;
+            } else {
+                if (nextIds.contains(previous.get(i).id())) {
+                    movedOut.add(previous.get(i).id());
+                }
+                changes.add(TableChanges.Kind.DELETE, position);
+                i++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Reads the page holding {@code row}; while a read is in flight only the latest wanted row is remembered.
+     */
+    private void request(int row) {
+        if (readFailed) {
+            return;
+        }
+        wantedRow = row;
+        if (activeRead != 0) {
+            return;
+        }
+        int windowEnd = windowStart + window.size();
+        if (!window.isEmpty() && row >= windowEnd && row < windowEnd + PAGE_SIZE) {
+            ConferenceUser last = window.get(window.size() - 1);
+            RosterPage.Cursor after = new RosterPage.Cursor(last.fullName(), last.id());
+            read(windowEnd, () -> dashboardService.loadUsersByRolePage(role, after, PAGE_SIZE));
+        } else {
+            int start = row / PAGE_SIZE * PAGE_SIZE;
+            read(start, () -> {
+                RosterPage.Cursor after = dashboardService.rosterCursorAt(role, start);
+                // no row before the page: the roster has shrunk since it was counted
+                return after == null && start > 0 ? null : dashboardService.loadUsersByRolePage(role, after, PAGE_SIZE);
+            });
+        }
+    }
+
+    private void read(int start, SQLSupplier<RosterPage> query) {
+        int read = ++readSequence;
+        activeRead = read;
+        execute(() -> {
+            try {
+                RosterPage page = query.get();
+                SwingUtilities.invokeLater(() -> loaded(read, start, page));
+            } catch (SQLException ex) {
+                SwingUtilities.invokeLater(() -> failed(read, ex));
+            }
+        });
+    }
+
+    private void loaded(int read, int start, RosterPage page) {
+        if (read != activeRead) {
+            return;
+        }
+        activeRead = 0;
+        if (page == null) {
+            reload();
+            return;
+        }
+        List<ConferenceUser> rows = page.users();
+        int windowEnd = windowStart + window.size();
+        List<ConferenceUser> merged = new ArrayList<>(window.size() + rows.size());
+        List<Object[]> mergedCells = new ArrayList<>(window.size() + rows.size());
+        int mergedStart;
+        if (!window.isEmpty() && start == windowEnd) {
+            merged.addAll(window);
+            mergedCells.addAll(cells);
+            merged.addAll(rows);
+            mergedCells.addAll(Collections.nCopies(rows.size(), null));
+            int drop = Math.max(0, merged.size() - MAX_WINDOW);
+            mergedStart = windowStart + drop;
+            merged.subList(0, drop).clear();
+            mergedCells.subList(0, drop).clear();
+        } else if (!window.isEmpty() && start + rows.size() == windowStart) {
+            merged.addAll(rows);
+            mergedCells.addAll(Collections.nCopies(rows.size(), null));
+            merged.addAll(window);
+            mergedCells.addAll(cells);
+            mergedStart = start;
+            int keep = Math.min(merged.size(), MAX_WINDOW);
+            merged.subList(keep, merged.size()).clear();
+            mergedCells.subList(keep, mergedCells.size()).clear();
+        } else {
+            merged.addAll(rows);
+            mergedCells.addAll(Collections.nCopies(rows.size(), null));
+            mergedStart = start;
+        }
+        window = merged;
+        cells = mergedCells;
+        windowStart = mergedStart;
+        int last = Math.min(start + rows.size(), rowCount) - 1;
+        if (last >= start) {
+            fireTableRowsUpdated(start, last);
+        }
+        requestWanted();
+    }
+
+    private void failed(int read, SQLException ex) {
+        if (read != activeRead) {
+            return;
+        }
+        activeRead = 0;
+        wantedRow = -1;
+        readFailed = true;
+        showError.accept("Не удалось загрузить страницу: " + ex.getMessage());
+    }
+
+    private void requestWanted() {
+        int row = wantedRow;
+        wantedRow = -1;
+        if (row >= 0 && row < rowCount && (row < windowStart || row >= windowStart + window.size())) {
+            request(row);
+        }
+    }
+
+    /**
+     * Reads the count and the window again, when a page turned out to lie past the end of the roster.
+     */
+    private void reload() {
+        int read = ++readSequence;
+        activeRead = read;
+        int start = windowStart;
+        int limit = windowLimit();
+        execute(() -> {
+            try {
+                RosterWindow fetched = dashboardService.loadRosterWindow(role, start, limit);
+                SwingUtilities.invokeLater(() -> {
+                    if (read == activeRead) {
+                        apply(fetched);
+                    }
+                });
+            } catch (SQLException ex) {
+                SwingUtilities.invokeLater(() -> failed(read, ex));
+            }
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            // the window is closing
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.infosecconference.desktop.ui;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row changes found by comparing two lists, merged into ranges and reported to a table model. Positions refer to
+ * the list as it is after all the preceding changes, which is how the table applies them; consecutive changes of
+ * one kind are merged, and repeated deletes happen at the same position.
+ */
+final class TableChanges {
+    private static final int MAX_EVENTS = 500;
+
+    enum Kind {
+        INSERT, DELETE, UPDATE
+    }
+
+    private record Change(Kind kind, int first, int last) {
+    }
+
+    private final List<Change> list = new ArrayList<>();
+    private int net;
+
+    void add(Kind kind, int position) {
+        if (kind == Kind.INSERT) {
+            net++;
+        } else if (kind == Kind.DELETE) {
+            net--;
+        }
+        if (!list.isEmpty()) {
+            Change last = list.get(list.size() - 1);
+            boolean continues = last.kind() == kind
+                    && (kind == Kind.DELETE ? last.first() == position : last.last() + 1 == position);
+            if (continues) {
+                int width = last.last() - last.first() + 1;
+                list.set(list.size() - 1, kind == Kind.DELETE
+                        ? new Change(kind, position, position + width)
+                        : new Change(kind, last.first(), position));
+                return;
+            }
+        }
+        list.add(new Change(kind, position, position));
+    }
+
+    /**
+     * Rows inserted minus rows deleted.
+     */
+    int net() {
+        return net;
+    }
+
+    /**
+     * Reports the changes to {@code model} with every position moved by {@code offset}; too many ranges are
+     * reported as one data change instead.
+     *
+     * @return {@code false} when the whole table was reported as changed
+     */
+    boolean fire(AbstractTableModel model, int offset) {
+        if (list.size() > MAX_EVENTS) {
+            model.fireTableDataChanged();
+            return false;
+        }
+        for (Change change : list) {
+            int first = change.first() + offset;
+            int last = change.last() + offset;
+            switch (change.kind()) {
+                case INSERT -> model.fireTableRowsInserted(first, last);
+                case DELETE -> model.fireTableRowsDeleted(first, last);
+                case UPDATE -> model.fireTableRowsUpdated(first, last);
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.infosecconference.desktop.ui;
+
+import com.infosecconference.desktop.service.ImageService;
+
+import javax.swing.ImageIcon;
+import javax.swing.JLabel;
+import javax.swing.JTable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.Component;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+/**
+ * Renders a cell holding an image path as a thumbnail from {@link ImageService}. JTable only paints visible rows,
+ * so only their images are requested; until one arrives the cell stays empty and is repainted when it does.
+ */
+final class ThumbnailRenderer extends DefaultTableCellRenderer {
+    private final ImageService imageService;
+    private final int size;
+
+    ThumbnailRenderer(ImageService imageService, int size) {
+        this.imageService = imageService;
+        this.size = size;
+        setHorizontalAlignment(SwingConstants.CENTER);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table,
+                                                   Object value,
+                                                   boolean isSelected,
+                                                   boolean hasFocus,
+                                                   int row,
+                                                   int column) {
+        JLabel label = (JLabel) super.getTableCellRendererComponent(table, null, isSelected, hasFocus, row, column);
+        String path = value != null ? value.toString() : null;
+        BufferedImage image = path != null ? imageService.cached(path, size) : null;
+        label.setIcon(image != null ? new ImageIcon(image) : null);
+        if (image == null && path != null) {
+            imageService.load(path, size).thenAccept(loaded -> {
+                if (loaded != null) {
+                    SwingUtilities.invokeLater(() -> repaintIfVisible(table, row, column));
+                }
+            });
+        }
+        return label;
+    }
+
+    private static void repaintIfVisible(JTable table, int row, int column) {
+        if (row >= table.getRowCount()) {
+            return;
+        }
+        Rectangle cell = table.getCellRect(row, column, false);
+        if (cell.intersects(table.getVisibleRect())) {
+            table.repaint(cell);
+        }
+    }
+}
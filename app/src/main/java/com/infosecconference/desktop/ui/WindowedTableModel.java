@@ -0,0 +1,211 @@
+package com.infosecconference.desktop.ui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.AbstractTableModel;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Read-only table model over a list of records that converts only the rows around the viewport into cells. The
+ * row count is the size of the list from the start, so the scrollbar is right immediately; rows are converted a
+ * page at a time on a background executor when the table first paints them and show blank until then.
+ * <p>
+ * A new list is compared with the previous one by record id on the same executor, and only the rows that were
+ * inserted, deleted or changed are reported to the table, so selection and scroll position survive a refresh.
+ * The executor must run tasks one at a time in submission order. All other methods must be called on the Event
+ * Dispatch Thread.
+ *
+ * @param <T> row type
+ */
+final class WindowedTableModel<T> extends AbstractTableModel {
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_CACHED_ROWS = 8 * PAGE_SIZE;
+
+    private final String[] columns;
+    private final Function<? super T, Object[]> toCells;
+    private final ToLongFunction<? super T> idOf;
+    private final Executor executor;
+    private final Map<Long, Object[]> cells = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Object[]> eldest) {
+            return size() > MAX_CACHED_ROWS;
+        }
+    };
+    private final Set<Integer> pending = new HashSet<>();
+    private List<? extends T> rows = List.of();
+    private long[] ids = new long[0];
+
+    // confined to the executor: the list the most recently submitted diff ends with
+    private List<? extends T> diffBase = List.of();
+    private long[] diffBaseIds = new long[0];
+
+    WindowedTableModel(String[] columns,
+                       Function<? super T, Object[]> toCells,
+                       ToLongFunction<? super T> idOf,
+                       Executor executor) {
+        this.columns = columns.clone();
+        this.toCells = toCells;
+        this.idOf = idOf;
+        this.executor = executor;
+    }
+
+    /**
+     * Replaces the rows once they have been compared with the current ones. The list must not change afterwards;
+     * it is read on the background executor.
+     */
+    void setRows(List<? extends T> next) {
+        Set<Long> shown = new HashSet<>(cells.keySet());
+        execute(() -> {
+            Diff diff = diff(next, shown);
+            diffBase = next;
+            diffBaseIds = diff.ids();
+            SwingUtilities.invokeLater(() -> apply(next, diff));
+        });
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columns[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        Object[] rowCells = cells.get(ids[row]);
+        if (rowCells == null) {
+            request(row / PAGE_SIZE);
+            return null;
+        }
+        return rowCells[column];
+    }
+
+    private void apply(List<? extends T> next, Diff diff) {
+        rows = next;
+        ids = diff.ids();
+        pending.clear();
+        cells.keySet().removeAll(diff.stale());
+        cells.putAll(diff.refreshed());
+        diff.changes().fire(this, 0);
+    }
+
+    /**
+     * Walks both lists in order. Records present in both at the same place are kept or updated, records that
+     * moved are deleted and inserted again.
+     */
+    private Diff diff(List<? extends T> next, Set<Long> shown) {
+        List<? extends T> previous = diffBase;
+        long[] previousIds = diffBaseIds;
+        long[] nextIds = new long[next.size()];
+        Map<Long, Integer> previousIndex = new HashMap<>();
+        for (int i = 0; i < previousIds.length; i++) {
+            previousIndex.put(previousIds[i], i);
+        }
+        Set<Long> nextIdSet = new HashSet<>();
+        for (int j = 0; j < nextIds.length; j++) {
+            nextIds[j] = idOf.applyAsLong(next.get(j));
+            nextIdSet.add(nextIds[j]);
+        }
+
+        TableChanges changes = new TableChanges();
+        Set<Long> stale = new HashSet<>();
+        Map<Long, Object[]> refreshed = new HashMap<>();
+        Set<Long> movedOut = new HashSet<>();
+        int i = 0;
+        int j = 0;
+        int position = 0;
+        while (i < previousIds.length || j < nextIds.length) {
+            if (i < previousIds.length && j < nextIds.length && previousIds[i] == nextIds[j]) {
+                if (!same(previous.get(i), next.get(j))) {
+                    changes.add(TableChanges.Kind.UPDATE, position);
+                    changed(nextIds[j], next.get(j), shown, stale, refreshed);
+                }
+                i++;
+                j++;
+                position++;
+            } else if (j < nextIds.length
+                    && (movedOut.contains(nextIds[j]) || !previousIndex.containsKey(nextIds[j]))) {
+                if (movedOut.contains(nextIds[j])
+                        && !same(previous.get(previousIndex.get(nextIds[j])), next.get(j))) {
+                    changed(nextIds[j], next.get(j), shown, stale, refreshed);
+                }
+                changes.add(TableChanges.Kind.INSERT, position);
+                j++;
+                position++;
+            } else {
+                if (nextIdSet.contains(previousIds[i])) {
+                    movedOut.add(previousIds[i]);
+                } else {
+                    stale.add(previousIds[i]);
+                }
+                changes.add(TableChanges.Kind.DELETE, position);
+                i++;
+            }
+        }
+        return new Diff(nextIds, changes, stale, refreshed);
+    }
+
+    private void changed(long id, T record, Set<Long> shown, Set<Long> stale, Map<Long, Object[]> refreshed) {
+        // rows on screen get their new cells with the diff, so they do not blank out while being reconverted
+        if (shown.contains(id)) {
+            refreshed.put(id, toCells.apply(record));
+        } else {
+            stale.add(id);
+        }
+    }
+
+    private static boolean same(Object previous, Object next) {
+        return previous == next || previous.equals(next);
+    }
+
+    private void request(int page) {
+        if (!pending.add(page)) {
+            return;
+        }
+        List<? extends T> source = rows;
+        int from = page * PAGE_SIZE;
+        int to = Math.min(source.size(), from + PAGE_SIZE);
+        execute(() -> {
+            Map<Long, Object[]> converted = new HashMap<>();
+            for (int row = from; row < to; row++) {
+                T record = source.get(row);
+                converted.put(idOf.applyAsLong(record), toCells.apply(record));
+            }
+            SwingUtilities.invokeLater(() -> {
+                if (rows != source) {
+                    return;
+                }
+                pending.remove(page);
+                cells.putAll(converted);
+                fireTableRowsUpdated(from, to - 1);
+            });
+        });
+    }
+
+    private void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ex) {
+            // the window is closing
+        }
+    }
+
+    private record Diff(long[] ids, TableChanges changes, Set<Long> stale, Map<Long, Object[]> refreshed) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.infosecconference.desktop.util;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SQLConsumer<T> {
+    void accept(T t) throws SQLException;
+}
@@ -0,0 +1,8 @@
+package com.infosecconference.desktop.util;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SQLSupplier<T> {
+    T get() throws SQLException;
+}
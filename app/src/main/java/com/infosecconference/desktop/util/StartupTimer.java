@@ -0,0 +1,45 @@
+package com.infosecconference.desktop.util;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Records when startup phases were reached, counted from the start of the JVM, and prints them once the last
+ * phase is done. Only the first time a phase is marked counts.
+ */
+public final class StartupTimer {
+    private final long jvmStartMillis;
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private boolean reported;
+
+    private StartupTimer(long jvmStartMillis) {
+        this.jvmStartMillis = jvmStartMillis;
+    }
+
+    public static StartupTimer sinceJvmStart() {
+        return new StartupTimer(ManagementFactory.getRuntimeMXBean().getStartTime());
+    }
+
+    public synchronized void mark(String phase) {
+        phases.putIfAbsent(phase, System.currentTimeMillis() - jvmStartMillis);
+    }
+
+    /**
+     * Marks the final phase and prints the report the first time it is called.
+     */
+    public synchronized void finish(String phase) {
+        mark(phase);
+        if (!reported) {
+            reported = true;
+            System.out.println(report());
+        }
+    }
+
+    public synchronized String report() {
+        StringJoiner joiner = new StringJoiner(", ", "Запуск (от старта JVM): ", "");
+        phases.forEach((phase, millis) -> joiner.add(phase + " — " + millis + " мс"));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,107 @@
+-- Схема, ранее описанная только в README. IF NOT EXISTS позволяет применить миграцию к уже созданной базе.
+
+CREATE TABLE IF NOT EXISTS countries (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    iso_code VARCHAR(8)
+);
+
+CREATE TABLE IF NOT EXISTS cities (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    country_id BIGINT,
+    CONSTRAINT fk_city_country FOREIGN KEY (country_id) REFERENCES countries(id)
+);
+
+CREATE TABLE IF NOT EXISTS conference_users (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    full_name VARCHAR(255) NOT NULL,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    role VARCHAR(32) NOT NULL,
+    birth_date DATE,
+    city_id BIGINT,
+    country_id BIGINT,
+    organization VARCHAR(255),
+    phone VARCHAR(64),
+    bio TEXT,
+    photo_path VARCHAR(255),
+    CONSTRAINT fk_user_city FOREIGN KEY (city_id) REFERENCES cities(id),
+    CONSTRAINT fk_user_country FOREIGN KEY (country_id) REFERENCES countries(id)
+);
+
+CREATE TABLE IF NOT EXISTS events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    title VARCHAR(255) NOT NULL UNIQUE,
+    description TEXT,
+    start_date DATE,
+    end_date DATE,
+    city_id BIGINT,
+    venue VARCHAR(255),
+    image_path VARCHAR(255),
+    brand_color VARCHAR(16),
+    CONSTRAINT fk_event_city FOREIGN KEY (city_id) REFERENCES cities(id)
+);
+
+CREATE TABLE IF NOT EXISTS event_organizers (
+    event_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (event_id, user_id),
+    CONSTRAINT fk_event_organizer_event FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE,
+    CONSTRAINT fk_event_organizer_user FOREIGN KEY (user_id) REFERENCES conference_users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS activities (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    event_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT,
+    start_time DATETIME,
+    end_time DATETIME,
+    moderator_id BIGINT,
+    winner_team VARCHAR(255),
+    CONSTRAINT fk_activity_event FOREIGN KEY (event_id) REFERENCES events(id) ON DELETE CASCADE,
+    CONSTRAINT fk_activity_moderator FOREIGN KEY (moderator_id) REFERENCES conference_users(id)
+);
+
+CREATE TABLE IF NOT EXISTS activity_jury (
+    activity_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    PRIMARY KEY (activity_id, user_id),
+    CONSTRAINT fk_activity_jury_activity FOREIGN KEY (activity_id) REFERENCES activities(id) ON DELETE CASCADE,
+    CONSTRAINT fk_activity_jury_user FOREIGN KEY (user_id) REFERENCES conference_users(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS teams (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    name VARCHAR(255) NOT NULL,
+    track VARCHAR(255),
+    score INT DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS team_participants (
+    team_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    activity_id BIGINT,
+    PRIMARY KEY (team_id, user_id),
+    CONSTRAINT fk_team_participant_team FOREIGN KEY (team_id) REFERENCES teams(id) ON DELETE CASCADE,
+    CONSTRAINT fk_team_participant_user FOREIGN KEY (user_id) REFERENCES conference_users(id) ON DELETE CASCADE,
+    CONSTRAINT fk_team_participant_activity FOREIGN KEY (activity_id) REFERENCES activities(id) ON DELETE SET NULL
+);
+
+CREATE TABLE IF NOT EXISTS import_manifest (
+    source VARCHAR(191) NOT NULL,
+    row_key VARCHAR(512) NOT NULL,
+    row_ref VARCHAR(512),
+    content_hash CHAR(64) NOT NULL,
+    entity_id BIGINT,
+    PRIMARY KEY (source, row_key)
+);
+
+CREATE TABLE IF NOT EXISTS import_checkpoint (
+    source VARCHAR(191) PRIMARY KEY,
+    sheet_name VARCHAR(191),
+    last_row INT NOT NULL,
+    file_hash CHAR(64) NOT NULL,
+    completed TINYINT(1) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
@@ -0,0 +1,26 @@
+-- Индексы под запросы панели: списки по ролям, расписание и мероприятия по дате.
+-- Каждый индекс создаётся, только если его ещё нет, поэтому прерванный скрипт можно выполнить повторно.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'conference_users' AND INDEX_NAME = 'idx_users_role_name') = 0,
+              'ALTER TABLE conference_users ADD INDEX idx_users_role_name (role, full_name, id)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activities' AND INDEX_NAME = 'idx_activities_start') = 0,
+              'ALTER TABLE activities ADD INDEX idx_activities_start (start_time)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.STATISTICS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'events' AND INDEX_NAME = 'idx_events_start') = 0,
+              'ALTER TABLE events ADD INDEX idx_events_start (start_date)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
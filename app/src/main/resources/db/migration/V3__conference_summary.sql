@@ -0,0 +1,24 @@
+-- Счётчики для карточек панели: одна строка, которую импорт пересчитывает в своей транзакции.
+
+CREATE TABLE IF NOT EXISTS conference_summary (
+    id TINYINT PRIMARY KEY,
+    events BIGINT NOT NULL,
+    activities BIGINT NOT NULL,
+    participants BIGINT NOT NULL,
+    moderators BIGINT NOT NULL,
+    jury BIGINT NOT NULL,
+    organizers BIGINT NOT NULL,
+    teams BIGINT NOT NULL,
+    recomputed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP
+);
+
+INSERT INTO conference_summary (id, events, activities, participants, moderators, jury, organizers, teams)
+SELECT 1,
+       (SELECT COUNT(*) FROM events),
+       (SELECT COUNT(*) FROM activities),
+       (SELECT COUNT(*) FROM conference_users WHERE role = 'PARTICIPANT'),
+       (SELECT COUNT(*) FROM conference_users WHERE role = 'MODERATOR'),
+       (SELECT COUNT(*) FROM conference_users WHERE role = 'JURY'),
+       (SELECT COUNT(*) FROM conference_users WHERE role = 'ORGANIZER'),
+       (SELECT COUNT(*) FROM teams)
+ON DUPLICATE KEY UPDATE id = id;
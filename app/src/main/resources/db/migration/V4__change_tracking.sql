@@ -0,0 +1,41 @@
+-- Отметки изменения строк и журнал удалений для инкрементального обновления панели.
+-- Скрипт можно выполнить повторно: если он прервался (например, из-за прав на триггеры), после исправления причины
+-- следующий запуск доведёт его до конца.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'conference_users' AND COLUMN_NAME = 'updated_at') = 0,
+              'ALTER TABLE conference_users ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), ADD INDEX idx_users_updated (updated_at)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'events' AND COLUMN_NAME = 'updated_at') = 0,
+              'ALTER TABLE events ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), ADD INDEX idx_events_updated (updated_at)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+CREATE TABLE IF NOT EXISTS row_tombstones (
+    table_name VARCHAR(64) NOT NULL,
+    row_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    PRIMARY KEY (table_name, row_id),
+    INDEX idx_tombstones_deleted (deleted_at)
+);
+
+-- При включённом двоичном журнале (по умолчанию в MySQL 8) нужна привилегия SUPER
+-- или log_bin_trust_function_creators = 1.
+DROP TRIGGER IF EXISTS trg_users_tombstone;
+
+CREATE TRIGGER trg_users_tombstone AFTER DELETE ON conference_users FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at) VALUES ('conference_users', OLD.id, NOW(6))
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);
+
+DROP TRIGGER IF EXISTS trg_events_tombstone;
+
+CREATE TRIGGER trg_events_tombstone AFTER DELETE ON events FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at) VALUES ('events', OLD.id, NOW(6))
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);
@@ -0,0 +1,47 @@
+-- Отметки изменения и журнал удалений для расписания: активности и назначения жюри.
+-- Скрипт можно выполнить повторно, как и V4.
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activities' AND COLUMN_NAME = 'updated_at') = 0,
+              'ALTER TABLE activities ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), ADD INDEX idx_activities_updated (updated_at)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+SET @ddl = IF((SELECT COUNT(*) FROM information_schema.COLUMNS
+               WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'activity_jury' AND COLUMN_NAME = 'updated_at') = 0,
+              'ALTER TABLE activity_jury ADD COLUMN updated_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6) ON UPDATE CURRENT_TIMESTAMP(6), ADD INDEX idx_activity_jury_updated (updated_at)',
+              'DO 0');
+PREPARE migration FROM @ddl;
+EXECUTE migration;
+DEALLOCATE PREPARE migration;
+
+-- Для activity_jury в журнал пишется идентификатор активности: при удалении назначения меняется состав её жюри.
+DROP TRIGGER IF EXISTS trg_activities_tombstone;
+
+CREATE TRIGGER trg_activities_tombstone AFTER DELETE ON activities FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at) VALUES ('activities', OLD.id, NOW(6))
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);
+
+DROP TRIGGER IF EXISTS trg_activity_jury_tombstone;
+
+CREATE TRIGGER trg_activity_jury_tombstone AFTER DELETE ON activity_jury FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at) VALUES ('activity_jury', OLD.activity_id, NOW(6))
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);
+
+-- Каскадное удаление по внешнему ключу триггеры не вызывает, поэтому строки, которые удалит каскад,
+-- записываются в журнал до удаления родительской строки.
+DROP TRIGGER IF EXISTS trg_events_cascade_tombstone;
+
+CREATE TRIGGER trg_events_cascade_tombstone BEFORE DELETE ON events FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at)
+    SELECT 'activities', a.id, NOW(6) FROM activities a WHERE a.event_id = OLD.id
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);
+
+DROP TRIGGER IF EXISTS trg_users_cascade_tombstone;
+
+CREATE TRIGGER trg_users_cascade_tombstone BEFORE DELETE ON conference_users FOR EACH ROW
+    INSERT INTO row_tombstones (table_name, row_id, deleted_at)
+    SELECT 'activity_jury', aj.activity_id, NOW(6) FROM activity_jury aj WHERE aj.user_id = OLD.id
+    ON DUPLICATE KEY UPDATE deleted_at = NOW(6);